@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import storage.BinaryScoreFile;
+import storage.HighScore;
+
+public class BinaryScoreFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testNewFileRoundTrip() {
+        File file = tempDir.resolve("high_scores.bin").toFile();
+        BinaryScoreFile store = new BinaryScoreFile(file.getPath());
+        assertEquals(8, file.length());
+        assertTrue(store.replay().isEmpty());
+
+        LocalDateTime when = LocalDateTime.of(2025, 12, 1, 18, 30, 15);
+        store.append(List.of(new HighScore("alice", 120, "snake", when),
+                new HighScore("bob", 90, "blackjack", when.plusMinutes(1))));
+
+        List<HighScore> replayed = new BinaryScoreFile(file.getPath()).replay();
+        assertEquals(2, replayed.size());
+        assertEquals("alice", replayed.get(0).getUsername());
+        assertEquals(120, replayed.get(0).getScore());
+        assertEquals("snake", replayed.get(0).getGameType());
+        assertEquals(when, replayed.get(0).getTimestamp());
+        assertEquals("bob", replayed.get(1).getUsername());
+    }
+
+    @Test
+    public void testCompactToEmptyKeepsHeader() {
+        File file = tempDir.resolve("high_scores.bin").toFile();
+        BinaryScoreFile store = new BinaryScoreFile(file.getPath());
+        store.append(List.of(new HighScore("alice", 120, "snake", LocalDateTime.of(2025, 12, 1, 18, 30))));
+        store.compact(List.of());
+        assertEquals(8, file.length());
+
+        store.append(List.of(new HighScore("bob", 90, "snake", LocalDateTime.of(2025, 12, 2, 9, 0))));
+        List<HighScore> replayed = new BinaryScoreFile(file.getPath()).replay();
+        assertEquals(1, replayed.size());
+        assertEquals("bob", replayed.get(0).getUsername());
+    }
+
+    @Test
+    public void testCompactBeforeFirstReadSkipsOwnAppends() {
+        File file = tempDir.resolve("high_scores.bin").toFile();
+        BinaryScoreFile first = new BinaryScoreFile(file.getPath());
+        BinaryScoreFile second = new BinaryScoreFile(file.getPath());
+        LocalDateTime when = LocalDateTime.of(2025, 12, 1, 18, 30);
+
+        // Appended before any replay, then dropped by the compaction
+        first.append(List.of(new HighScore("alice", 10, "snake", when),
+                new HighScore("alice", 20, "snake", when)));
+        second.append(List.of(new HighScore("bob", 40, "snake", when)));
+        first.compact(List.of(new HighScore("alice", 20, "snake", when)));
+
+        List<HighScore> replayed = new BinaryScoreFile(file.getPath()).replay();
+        assertEquals(2, replayed.size());
+        assertEquals(20, replayed.get(0).getScore());
+        assertEquals("bob", replayed.get(1).getUsername());
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import blackjack.BlackjackEngine;
+import blackjack.BlackjackListener;
+import blackjack.BotPlayer;
+import blackjack.Dealer;
+import blackjack.HumanPlayer;
+import blackjack.RoundOutcome;
+import blackjack.Shoe;
+
+public class BlackjackEngineTest {
+
+    // A one-deck table whose shoe deals the given cards first
+    private static BlackjackEngine stacked(String... codes) {
+        BlackjackEngine engine = new BlackjackEngine(new HumanPlayer("tester", 1000),
+                new BotPlayer("AI 1", 1000, 16), new BotPlayer("AI 2", 1000, 18),
+                new Dealer(0), new Shoe(1, 1.0));
+        List<String> deck = new ArrayList<>(Arrays.asList(codes));
+        Collections.reverse(deck);
+        engine.getShoe().setFromCardCodes(deck);
+        return engine;
+    }
+
+    @Test
+    public void testStandAndSettle() {
+        // Player 20, AI 1 17, AI 2 18, dealer hard 17
+        BlackjackEngine engine = stacked("KH", "TH", "TD", "TS", "QH", "7H", "8D", "7S");
+        List<RoundOutcome> outcomes = new ArrayList<>();
+        engine.addListener(new BlackjackListener() {
+            @Override
+            public void roundEnded(RoundOutcome playerOutcome, boolean dealerBusted) {
+                outcomes.add(playerOutcome);
+            }
+        });
+        engine.deal(10);
+        assertTrue(engine.isPlayerTurn());
+        assertTrue(engine.isHoleCardHidden());
+
+        assertTrue(engine.stand());
+        assertFalse(engine.isRoundActive());
+        assertEquals(List.of(RoundOutcome.WIN), outcomes);
+        assertEquals(1010, engine.getPlayer().getBalance());
+        assertEquals(1000, engine.getBot1().getBalance());
+        assertEquals(1010, engine.getBot2().getBalance());
+        assertFalse(engine.hit());
+    }
+
+    @Test
+    public void testDealerBlackjackEndsRound() {
+        BlackjackEngine engine = stacked("KH", "TH", "TD", "AS", "QH", "7H", "8D", "KS");
+        boolean[] dealerBlackjack = {false};
+        engine.addListener(new BlackjackListener() {
+            @Override
+            public void initialBlackjack(boolean player, boolean bot1, boolean bot2, boolean dealer) {
+                dealerBlackjack[0] = dealer;
+            }
+        });
+        engine.deal(10);
+        assertTrue(dealerBlackjack[0]);
+        assertFalse(engine.isRoundActive());
+        assertEquals(990, engine.getPlayer().getBalance());
+    }
+
+    @Test
+    public void testInvalidBet() {
+        BlackjackEngine engine = new BlackjackEngine("tester");
+        assertThrows(IllegalArgumentException.class, () -> engine.deal(BlackjackEngine.MIN_BET - 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.deal(BlackjackEngine.STARTING_BALANCE + 1));
+        assertFalse(engine.isRoundActive());
+    }
+
+    @Test
+    public void testShoeReshufflesOnlyPastCutCard() {
+        Shoe shoe = new Shoe(2, 0.5);
+        assertEquals(104, shoe.size());
+        for (int i = 0; i < 51; i++) {
+            shoe.drawCard();
+        }
+        assertFalse(shoe.reshuffleIfPastCutCard());
+        shoe.drawCard();
+        assertTrue(shoe.isPastCutCard());
+        assertTrue(shoe.reshuffleIfPastCutCard());
+        assertEquals(104, shoe.getRemainingCount());
+    }
+}
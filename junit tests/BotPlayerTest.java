@@ -3,6 +3,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import blackjack.BotPlayer;
 import blackjack.Card;
+import blackjack.Dealer;
 
 public class BotPlayerTest {
 
@@ -80,5 +81,58 @@ public class BotPlayerTest {
         bot.addCard(new Card('K', 'H'));
         assertFalse(bot.shouldHit());
     }
-}
 
+    @Test
+    public void testSoftAndHardTotals() {
+        BotPlayer bot = new BotPlayer("AI 1", 1000, 16);
+        bot.addCard(Card.fromCode("AH"));
+        bot.addCard(Card.fromCode("AD"));
+        assertEquals(12, bot.getHandValue());
+        assertTrue(bot.isSoft());
+
+        bot.addCard(Card.fromCode("9C"));
+        assertEquals(21, bot.getHandValue());
+        assertTrue(bot.isSoft());
+
+        bot.addCard(Card.fromCode("5S"));
+        assertEquals(16, bot.getHandValue());
+        assertFalse(bot.isSoft());
+        assertFalse(bot.isBusted());
+    }
+
+    @Test
+    public void testBlackjackAndReset() {
+        BotPlayer bot = new BotPlayer("AI 1", 1000, 16);
+        bot.addCard(Card.fromCode("AS"));
+        bot.addCard(Card.fromCode("KS"));
+        assertTrue(bot.hasBlackjack());
+
+        bot.resetForNewRound();
+        assertEquals(0, bot.getHandValue());
+        assertFalse(bot.isSoft());
+        assertTrue(bot.getHand().isEmpty());
+    }
+
+    @Test
+    public void testHandViewIsReadOnly() {
+        BotPlayer bot = new BotPlayer("AI 1", 1000, 16);
+        bot.addCard(Card.fromCode("2H"));
+        assertThrows(UnsupportedOperationException.class, () -> bot.getHand().add(Card.fromCode("3H")));
+        assertEquals(1, bot.getHand().size());
+    }
+
+    @Test
+    public void testDealerHitsSoftSeventeenOnly() {
+        Dealer soft = new Dealer(0);
+        soft.addCard(Card.fromCode("AH"));
+        soft.addCard(Card.fromCode("6H"));
+        assertTrue(soft.shouldHit());
+
+        Dealer hard = new Dealer(0);
+        hard.addCard(Card.fromCode("AH"));
+        hard.addCard(Card.fromCode("6H"));
+        hard.addCard(Card.fromCode("KH"));
+        assertEquals(17, hard.getHandValue());
+        assertFalse(hard.shouldHit());
+    }
+}
@@ -96,5 +96,22 @@ public class CardTest {
         assertTrue(card.toString().contains("Ace"));
         assertTrue(card.toString().contains("Hearts"));
     }
-}
 
+    @Test
+    public void testFromCodeReturnsSharedInstance() {
+        assertSame(Card.fromCode("QS"), Card.fromCode("QS"));
+        assertSame(Card.of('Q', 'S'), Card.fromCode("QS"));
+        assertEquals(new Card('Q', 'S'), Card.fromCode("QS"));
+    }
+
+    @Test
+    public void testOrdinalRoundTrip() {
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            Card card = Card.of(ordinal);
+            assertEquals(ordinal, card.ordinal());
+            assertSame(card, Card.fromCode(card.toCode()));
+            assertEquals(card.getBaseValue(), Card.baseValue(ordinal));
+        }
+        assertTrue(Card.fromCode("AD").isAce());
+    }
+}
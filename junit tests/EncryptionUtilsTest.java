@@ -1,6 +1,13 @@
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import utils.EncryptionUtils;
 
 public class EncryptionUtilsTest {
@@ -83,5 +90,58 @@ public class EncryptionUtilsTest {
         String decrypted = EncryptionUtils.decrypt(encrypted);
         assertEquals(longText, decrypted);
     }
-}
 
+    @Test
+    public void testStreamMatchesString() throws IOException {
+        // Longer than one chunk, with non-ASCII text
+        String text = "round 1|d\u00e9j\u00e0 vu|".repeat(2000);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        EncryptionUtils.encrypt(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), encrypted);
+        assertEquals(EncryptionUtils.encrypt(text), encrypted.toString(StandardCharsets.US_ASCII));
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        EncryptionUtils.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+        assertEquals(text, decrypted.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testByteBufferRoundTrip() {
+        String text = "hand;deck;".repeat(3000) + "end";
+        ByteBuffer plain = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer encrypted = EncryptionUtils.encryptBuffer(plain);
+        assertEquals(0, plain.position());
+        assertEquals(EncryptionUtils.encrypt(text), StandardCharsets.US_ASCII.decode(encrypted.duplicate()).toString());
+        assertEquals(text, StandardCharsets.UTF_8.decode(EncryptionUtils.decryptBuffer(encrypted)).toString());
+    }
+
+    @Test
+    public void testIsEncryptedChecksLengthAndPadding() {
+        assertFalse(EncryptionUtils.isEncrypted("abc"));
+        assertFalse(EncryptionUtils.isEncrypted("ab=c"));
+        assertFalse(EncryptionUtils.isEncrypted("a==="));
+        assertTrue(EncryptionUtils.isEncrypted("ab=="));
+        assertTrue(EncryptionUtils.isEncrypted("abc="));
+    }
+
+    // Encrypts the way versions before the switch to UTF-8 did
+    private static String legacyEncrypt(String plainText) {
+        byte[] key = "CS151GameProject".getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = plainText.getBytes(Charset.defaultCharset());
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] ^= key[i % key.length];
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @Test
+    public void testLegacyPlatformCharsetRecords() {
+        // Only differs from UTF-8 when the platform charset is not UTF-8
+        Charset platform = Charset.defaultCharset();
+        String text = "caf\u00e9 na\u00efve";
+        // What an older version read back, as the platform charset may not hold every character
+        String expected = new String(text.getBytes(platform), platform);
+        assertEquals(expected, EncryptionUtils.decrypt(legacyEncrypt(text)));
+        assertTrue(EncryptionUtils.validatePassword("caf\u00e9", legacyEncrypt("caf\u00e9")));
+        assertFalse(EncryptionUtils.validatePassword("cafe", legacyEncrypt("caf\u00e9")));
+    }
+}
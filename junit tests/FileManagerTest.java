@@ -0,0 +1,245 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import storage.FileManager;
+import storage.HighScore;
+import storage.LeaderboardWindow;
+import storage.MemoryScoreStore;
+import storage.MemoryUserStore;
+import storage.ScoreJournal;
+
+public class FileManagerTest {
+
+    // A Wednesday, so the current week started two days earlier
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 3, 12, 0);
+    private static final Clock CLOCK = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(),
+            ZoneId.systemDefault());
+
+    private FileManager fileManager;
+
+    private FileManager open(int keepPerUser, MemoryScoreStore store) {
+        System.setProperty("storage.retention.keepPerUser", String.valueOf(keepPerUser));
+        try {
+            fileManager = new FileManager(new MemoryUserStore(), store, 10, CLOCK);
+        } finally {
+            System.clearProperty("storage.retention.keepPerUser");
+        }
+        return fileManager;
+    }
+
+    private static List<Integer> points(List<HighScore> scores) {
+        return scores.stream().map(HighScore::getScore).collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<HighScore> scores) {
+        return scores.stream().map(HighScore::getUsername).collect(Collectors.toList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (fileManager != null) {
+            fileManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetentionEvictsLiveScores() {
+        FileManager fm = open(2, new MemoryScoreStore());
+        for (int score = 10; score <= 50; score += 10) {
+            fm.addHighScore("alice", score, "snake");
+        }
+
+        assertEquals(2, fm.getScoreCount("snake"));
+        List<HighScore> top = fm.getTopScores("snake", 10);
+        assertEquals(2, top.size());
+        assertEquals(50, top.get(0).getScore());
+        assertEquals(40, top.get(1).getScore());
+        assertEquals(points(top), points(fm.getScorePage("snake", 0, 10)));
+        // This week's board still shows every score
+        assertEquals(5, fm.getScoreCount("snake", LeaderboardWindow.WEEKLY));
+    }
+
+    @Test
+    public void testWindowedBoardsKeepScoresOutsideBestN() {
+        MemoryScoreStore store = new MemoryScoreStore();
+        store.append(List.of(
+                new HighScore("alice", 1000, "snake", LocalDateTime.of(2024, 5, 1, 9, 0)),
+                new HighScore("alice", 900, "snake", LocalDateTime.of(2024, 5, 2, 9, 0)),
+                new HighScore("alice", 800, "snake", LocalDateTime.of(2024, 5, 3, 9, 0)),
+                new HighScore("alice", 50, "snake", NOW.minusHours(2)),
+                new HighScore("alice", 40, "snake", NOW.minusDays(1))));
+        FileManager fm = open(2, store);
+        fm.addHighScore("alice", 60, "snake");
+
+        List<HighScore> daily = fm.getTopScores("snake", LeaderboardWindow.DAILY, 10);
+        assertEquals(2, daily.size());
+        assertEquals(60, daily.get(0).getScore());
+        assertEquals(50, daily.get(1).getScore());
+        assertEquals(3, fm.getScoreCount("snake", LeaderboardWindow.WEEKLY));
+        assertEquals(2, fm.getScoreCount("snake"));
+        assertEquals(1000, fm.getTopScores("snake", 1).get(0).getScore());
+        // Only the old score outside the best two was rolled up
+        assertEquals(1, fm.getRollup("alice", "snake").getCount());
+
+        // This week's scores survive the rewrite and a reload
+        fm.compactHighScores();
+        fm.getPersister().flush();
+        assertEquals(List.of(1000, 900), points(fm.getScorePage("snake", 0, 10)));
+        assertEquals(1, fm.getRank("alice", "snake"));
+        fm.loadAllData();
+        assertEquals(points(daily), points(fm.getTopScores("snake", LeaderboardWindow.DAILY, 10)));
+        assertEquals(3, fm.getScoreCount("snake", LeaderboardWindow.WEEKLY));
+        assertEquals(2, fm.getScoreCount("snake"));
+    }
+
+    @Test
+    public void testFullBoardRefillsAfterEviction() {
+        FileManager fm = open(1, new MemoryScoreStore());
+        for (int i = 0; i <= 100; i++) {
+            fm.addHighScore("u" + i, i, "snake");
+        }
+        // Each improvement evicts a row that is on the full board
+        for (int i = 100; i >= 2; i--) {
+            fm.addHighScore("u" + i, 1000 + i, "snake");
+        }
+
+        List<HighScore> top = fm.getTopScores("snake", 100);
+        assertEquals(100, top.size());
+        assertEquals(names(fm.getScorePage("snake", 0, 100)), names(top));
+        assertEquals("u1", top.get(99).getUsername());
+
+        // A low score arriving later ranks below the board
+        fm.addHighScore("late", 1, "snake");
+        assertEquals(names(fm.getScorePage("snake", 0, 100)), names(fm.getTopScores("snake", 100)));
+        assertEquals(100, fm.getLeaderboard("snake").size());
+    }
+
+    @Test
+    public void testAsyncReloadPicksUpOtherInstancesScores(@TempDir Path dir) {
+        String fileName = dir.resolve("high_scores.txt").toString();
+        System.setProperty("storage.watchFiles", "false");
+        try {
+            fileManager = new FileManager(new MemoryUserStore(), new ScoreJournal(fileName), 10, CLOCK);
+        } finally {
+            System.clearProperty("storage.watchFiles");
+        }
+        fileManager.addHighScore("alice", 50, "snake");
+        new ScoreJournal(fileName).append(List.of(new HighScore("bob", 70, "snake", NOW)));
+
+        // Without a watcher every refresh reloads, on the loader thread
+        fileManager.refreshHighScoresIfStale().join();
+        assertEquals(List.of(70, 50), points(fileManager.getTopScores("snake", 10)));
+    }
+
+    @Test
+    public void testReloadDuringAddsLosesNothing() throws InterruptedException {
+        MemoryScoreStore store = new MemoryScoreStore();
+        FileManager fm = open(0, store);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                fm.addHighScore("u" + (i % 50), i, "snake");
+            }
+            done.set(true);
+        });
+        Thread reloader = new Thread(() -> {
+            while (!done.get()) {
+                fm.loadAllData();
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    List<Integer> top = points(fm.getTopScores("snake", 10));
+                    for (int i = 1; i < top.size(); i++) {
+                        assertTrue(top.get(i - 1) >= top.get(i));
+                    }
+                    fm.getScorePage("snake", 0, 10);
+                    fm.getRank("u0", "snake");
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        reloader.start();
+        reader.start();
+        writer.join();
+        reloader.join();
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(2000, fm.getScoreCount("snake"));
+        fm.getPersister().flush();
+        assertEquals(2000, store.replay().size());
+        fm.loadAllData();
+        assertEquals(2000, fm.getScoreCount("snake"));
+        assertEquals(1999, fm.getTopScores("snake", 1).get(0).getScore());
+    }
+
+    @Test
+    public void testTopScoresPerGame() {
+        FileManager fm = open(0, new MemoryScoreStore());
+        for (int score = 1; score <= 8; score++) {
+            fm.addHighScore("alice", score * 10, "snake");
+            fm.addHighScore("bob", score, "Blackjack");
+        }
+
+        assertEquals(List.of(80, 70, 60, 50, 40), points(fm.getTop5Scores("snake")));
+        // Game types match ignoring case and surrounding spaces
+        assertEquals(List.of(8, 7, 6), points(fm.getTopScores(" BLACKJACK ", 3)));
+        assertEquals(8, fm.getTopScores("blackjack", 10).size());
+        assertTrue(fm.getTopScores("pong", 5).isEmpty());
+    }
+
+    @Test
+    public void testUserLookupIgnoresCase() {
+        FileManager fm = open(0, new MemoryScoreStore());
+        assertTrue(fm.addUser("Alice", "secret"));
+        assertFalse(fm.addUser("ALICE", "other"));
+
+        assertTrue(fm.userExists("alice"));
+        assertEquals("Alice", fm.getUser("aLiCe").getUsername());
+        assertTrue(fm.validateLogin("alice", "secret"));
+        assertFalse(fm.validateLogin("ALICE", "other"));
+        assertFalse(fm.validateLogin("bob", "secret"));
+        assertNull(fm.getUser("bob"));
+    }
+
+    @Test
+    public void testAddUsersSkipsDuplicatesInOneBatch() {
+        FileManager fm = open(0, new MemoryScoreStore());
+        fm.addUser("carol", "pw");
+
+        int added = fm.addUsers(Stream.of(
+                Map.entry("dave", "first"),
+                Map.entry("DAVE", "second"),
+                Map.entry("Carol", "taken"),
+                Map.entry(" ", "blank"),
+                Map.entry("a,b", "comma"),
+                Map.entry("erin", ""),
+                Map.entry("frank", "pw")));
+
+        assertEquals(2, added);
+        assertEquals(3, fm.getUserCount());
+        // The first of the duplicates wins
+        assertTrue(fm.validateLogin("dave", "first"));
+        assertFalse(fm.validateLogin("dave", "second"));
+        assertTrue(fm.validateLogin("carol", "pw"));
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import storage.HighScore;
+import storage.HighScoreParser;
+
+public class HighScoreParserTest {
+
+    private HighScore parse(HighScoreParser parser, String line) {
+        return parser.parse(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void assertSameAsFromFileFormat(String line) {
+        HighScore expected = HighScore.fromFileFormat(line);
+        HighScore actual = parse(new HighScoreParser(), line);
+        if (expected == null) {
+            assertNull(actual, line);
+            return;
+        }
+        assertNotNull(actual, line);
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getGameType(), actual.getGameType());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+
+    @Test
+    public void testParseRecord() {
+        HighScore score = parse(new HighScoreParser(), "bhuvan,2742,blackjack,2025-12-05 19:27:09");
+        assertEquals("bhuvan", score.getUsername());
+        assertEquals(2742, score.getScore());
+        assertEquals("blackjack", score.getGameType());
+        assertEquals(LocalDateTime.of(2025, 12, 5, 19, 27, 9), score.getTimestamp());
+    }
+
+    @Test
+    public void testMatchesFromFileFormat() {
+        assertSameAsFromFileFormat("admin,1016,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat(" admin , 1016 , snake , 2025-12-05 20:00:57 ");
+        assertSameAsFromFileFormat("admin,-5,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,+5,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,1016,snake,2025-12-05 20:00:57,extra");
+        assertSameAsFromFileFormat("admin,2147483647,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,2147483648,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,12a,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,,snake,2025-12-05 20:00:57");
+        assertSameAsFromFileFormat("admin,5,snake,2024-02-29 00:00:00");
+        assertSameAsFromFileFormat("admin,5,snake,2025-02-30 00:00:00");
+        assertSameAsFromFileFormat("admin,5,snake,2025-13-01 00:00:00");
+        assertSameAsFromFileFormat("admin,5,snake,2025-12-05T20:00:57");
+        assertSameAsFromFileFormat("admin,5,snake");
+        assertSameAsFromFileFormat("");
+    }
+
+    @Test
+    public void testReusesStrings() {
+        HighScoreParser parser = new HighScoreParser();
+        HighScore first = parse(parser, "admin,1,snake,2025-12-05 20:00:57");
+        HighScore second = parse(parser, "admin,2,snake,2025-12-05 20:00:58");
+        assertSame(first.getUsername(), second.getUsername());
+        assertSame(first.getGameType(), second.getGameType());
+    }
+
+    @Test
+    public void testParseArrayRange() {
+        byte[] bytes = "xx,admin,7,snake,2025-12-05 20:00:57\n".getBytes(StandardCharsets.UTF_8);
+        HighScore score = new HighScoreParser().parse(bytes, 3, bytes.length - 1);
+        assertEquals("admin", score.getUsername());
+        assertEquals(7, score.getScore());
+    }
+}
@@ -0,0 +1,38 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import utils.EncryptionUtils;
+import utils.PasswordHasher;
+
+public class PasswordHasherTest {
+
+    @Test
+    public void testHashAndVerify() {
+        String hashed = PasswordHasher.hash("myPassword", 1000);
+        assertTrue(hashed.startsWith("pbkdf2$1000$"));
+        assertEquals(1000, PasswordHasher.iterationsOf(hashed));
+        assertTrue(PasswordHasher.verify("myPassword", hashed));
+        assertFalse(PasswordHasher.verify("wrongPassword", hashed));
+    }
+
+    @Test
+    public void testSaltMakesHashesDiffer() {
+        assertNotEquals(PasswordHasher.hash("same", 1000), PasswordHasher.hash("same", 1000));
+    }
+
+    @Test
+    public void testLegacyRecordVerifiesAndNeedsRehash() {
+        String legacy = EncryptionUtils.encrypt("myPassword");
+        assertTrue(PasswordHasher.verify("myPassword", legacy));
+        assertFalse(PasswordHasher.verify("wrongPassword", legacy));
+        assertTrue(PasswordHasher.needsRehash(legacy));
+        assertFalse(PasswordHasher.needsRehash(PasswordHasher.hash("myPassword")));
+    }
+
+    @Test
+    public void testMalformedRecord() {
+        assertFalse(PasswordHasher.verify("x", "pbkdf2$abc$$"));
+        assertFalse(PasswordHasher.verify("x", null));
+        assertEquals(0, PasswordHasher.iterationsOf("pbkdf2$abc$x$y"));
+    }
+}
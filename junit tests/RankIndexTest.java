@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import storage.HighScore;
+import storage.RankIndex;
+import storage.ScoreColumns;
+
+public class RankIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    private final ScoreColumns columns = new ScoreColumns();
+
+    private int add(RankIndex index, String username, int points, int minute) {
+        int row = columns.add(new HighScore(username, points, "snake", START.plusMinutes(minute)));
+        index.add(row);
+        return row;
+    }
+
+    private static List<String> lines(List<HighScore> scores) {
+        return scores.stream().map(HighScore::toFileFormat).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRankOfUsesBestScore() {
+        RankIndex index = new RankIndex(columns);
+        add(index, "alice", 50, 0);
+        add(index, "bob", 80, 1);
+        add(index, "alice", 90, 2);
+        add(index, "carol", 10, 3);
+
+        assertEquals(1, index.rankOf("alice", "snake"));
+        assertEquals(1, index.rankOf("ALICE", "Snake"));
+        assertEquals(2, index.rankOf("bob", "snake"));
+        assertEquals(4, index.rankOf("carol", "snake"));
+        assertEquals(0, index.rankOf("dave", "snake"));
+        assertEquals(0, index.rankOf("alice", "blackjack"));
+    }
+
+    @Test
+    public void testPageAndAroundMatchSortedList() {
+        RankIndex index = new RankIndex(columns);
+        List<HighScore> all = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int row = add(index, "user" + i, random.nextInt(100), i);
+            all.add(columns.get(row));
+        }
+        all.sort(Comparator.comparingInt(HighScore::getScore).reversed()
+                .thenComparing(HighScore::getTimestamp));
+
+        assertEquals(lines(all.subList(0, 10)), lines(index.page("snake", 0, 10)));
+        assertEquals(lines(all.subList(245, 262)), lines(index.page("snake", 245, 17)));
+        assertEquals(lines(all.subList(495, 500)), lines(index.page("snake", 495, 10)));
+        assertTrue(index.page("snake", 500, 10).isEmpty());
+
+        HighScore middle = all.get(200);
+        assertEquals(201, index.rankOf(middle.getUsername(), "snake"));
+        assertEquals(lines(all.subList(197, 204)), lines(index.around(middle.getUsername(), "snake", 3)));
+        assertEquals(lines(all.subList(0, 3)), lines(index.around(all.get(0).getUsername(), "snake", 2)));
+    }
+
+    @Test
+    public void testRemove() {
+        RankIndex index = new RankIndex(columns);
+        int best = add(index, "alice", 90, 0);
+        add(index, "alice", 70, 1);
+        add(index, "bob", 80, 2);
+
+        assertTrue(index.remove(best));
+        assertFalse(index.remove(best));
+        assertEquals(2, index.size("snake"));
+        assertEquals(2, index.rankOf("alice", "snake"));
+        assertEquals(1, index.rankOf("bob", "snake"));
+    }
+
+    @Test
+    public void testRemoveBestFindsNextAcrossSpellings() {
+        RankIndex index = new RankIndex(columns);
+        int best = add(index, "alice", 90, 0);
+        add(index, "bob", 80, 1);
+        add(index, "ALICE", 60, 2);
+        int lowest = add(index, "Alice", 40, 3);
+
+        assertTrue(index.remove(lowest));
+        assertEquals(1, index.rankOf("alice", "snake"));
+        assertTrue(index.remove(best));
+        assertEquals(2, index.rankOf("alice", "snake"));
+        assertEquals(lines(index.page("snake", 1, 1)), lines(index.around("Alice", "snake", 0)));
+    }
+
+    @Test
+    public void testRemapAfterCompaction() {
+        RankIndex index = new RankIndex(columns);
+        int dropped = add(index, "alice", 90, 0);
+        add(index, "bob", 80, 1);
+        add(index, "carol", 70, 2);
+        index.remove(dropped);
+        columns.remove(dropped);
+        index.remap(columns.compact());
+
+        assertEquals(List.of("bob", "carol"),
+                index.page("snake", 0, 10).stream().map(HighScore::getUsername).collect(Collectors.toList()));
+        assertEquals(2, index.rankOf("carol", "snake"));
+        assertTrue(index.remove(0));
+        assertEquals(1, index.rankOf("carol", "snake"));
+    }
+}
@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import storage.HighScore;
+import storage.ScoreJournal;
+
+public class ScoreJournalTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 18, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private static HighScore score(String username, int points) {
+        return new HighScore(username, points, "snake", START.plusMinutes(points));
+    }
+
+    private static List<String> lines(List<HighScore> scores) {
+        return scores.stream().map(HighScore::toFileFormat).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testReadNewSkipsOwnAppends() {
+        String fileName = tempDir.resolve("high_scores.txt").toString();
+        ScoreJournal first = new ScoreJournal(fileName);
+        ScoreJournal second = new ScoreJournal(fileName);
+        first.append(List.of(score("carol", 5)));
+        first.replay();
+        second.replay();
+
+        first.append(List.of(score("alice", 10)));
+        second.append(List.of(score("bob", 20)));
+        first.append(List.of(score("alice", 30)));
+
+        assertEquals(lines(List.of(score("bob", 20))), lines(first.readNew()));
+        assertEquals(lines(List.of(score("alice", 10), score("alice", 30))), lines(second.readNew()));
+        assertTrue(first.readNew().isEmpty());
+    }
+
+    @Test
+    public void testCompactKeepsForeignAppends() {
+        String fileName = tempDir.resolve("high_scores.txt").toString();
+        ScoreJournal first = new ScoreJournal(fileName);
+        ScoreJournal second = new ScoreJournal(fileName);
+        first.append(List.of(score("alice", 10), score("alice", 20)));
+        first.replay();
+        second.replay();
+
+        second.append(List.of(score("bob", 40)));
+        first.compact(List.of(score("alice", 20)));
+
+        assertTrue(first.hasForeignChanges());
+        assertEquals(lines(List.of(score("bob", 40))), lines(first.readNew()));
+        assertEquals(lines(List.of(score("alice", 20), score("bob", 40))),
+                lines(new ScoreJournal(fileName).replay()));
+    }
+
+    @Test
+    public void testCompactBeforeFirstReadSkipsOwnAppends() {
+        String fileName = tempDir.resolve("high_scores.txt").toString();
+        ScoreJournal first = new ScoreJournal(fileName);
+        ScoreJournal second = new ScoreJournal(fileName);
+
+        // Appended before any replay, then dropped by the compaction
+        first.append(List.of(score("alice", 10), score("alice", 20)));
+        second.append(List.of(score("bob", 40)));
+        first.compact(List.of(score("alice", 20)));
+
+        assertEquals(lines(List.of(score("alice", 20), score("bob", 40))),
+                lines(new ScoreJournal(fileName).replay()));
+    }
+
+    @Test
+    public void testCompactAfterForeignCompaction() {
+        String fileName = tempDir.resolve("high_scores.txt").toString();
+        ScoreJournal first = new ScoreJournal(fileName);
+        ScoreJournal second = new ScoreJournal(fileName);
+        first.append(List.of(score("alice", 10)));
+        first.replay();
+        second.replay();
+
+        // The other instance replaces the file, then appends to the new one
+        second.compact(List.of(score("alice", 10), score("carol", 5)));
+        second.append(List.of(score("bob", 40)));
+        first.compact(List.of(score("alice", 10), score("alice", 50)));
+
+        assertEquals(lines(List.of(score("alice", 10), score("alice", 50), score("carol", 5), score("bob", 40))),
+                lines(new ScoreJournal(fileName).replay()));
+        File[] leftovers = tempDir.toFile().listFiles((dir, name) -> name.endsWith(".tmp"));
+        assertEquals(0, leftovers.length);
+    }
+
+    @Test
+    public void testConcurrentAppendsFromOneProcess() throws InterruptedException {
+        String fileName = tempDir.resolve("high_scores.txt").toString();
+        ScoreJournal first = new ScoreJournal(fileName);
+        ScoreJournal second = new ScoreJournal(fileName);
+
+        // Both hold the same sidecar lock, which the JVM will not hand out twice
+        Thread other = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                second.append(List.of(score("bob", i)));
+            }
+        });
+        other.start();
+        for (int i = 0; i < 200; i++) {
+            first.append(List.of(score("alice", i)));
+        }
+        other.join();
+
+        assertEquals(400, new ScoreJournal(fileName).replay().size());
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import storage.MemoryScoreStore;
+import storage.MemoryUserStore;
+import storage.StorageBackend;
+
+public class StorageBackendTest {
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("storage.backend");
+        System.clearProperty("storage.scoreFormat");
+    }
+
+    @Test
+    public void testBackendFromSystemProperty() {
+        assertEquals(StorageBackend.TEXT, StorageBackend.fromSystemProperties());
+
+        System.setProperty("storage.backend", "memory");
+        assertEquals(StorageBackend.MEMORY, StorageBackend.fromSystemProperties());
+        System.setProperty("storage.backend", " Binary ");
+        assertEquals(StorageBackend.BINARY, StorageBackend.fromSystemProperties());
+        System.setProperty("storage.backend", "jdbc");
+        assertEquals(StorageBackend.TEXT, StorageBackend.fromSystemProperties());
+    }
+
+    @Test
+    public void testOlderScoreFormatProperty() {
+        System.setProperty("storage.scoreFormat", "binary");
+        assertEquals(StorageBackend.BINARY, StorageBackend.fromSystemProperties());
+        // storage.backend wins when both are set
+        System.setProperty("storage.backend", "memory");
+        assertEquals(StorageBackend.MEMORY, StorageBackend.fromSystemProperties());
+    }
+
+    @Test
+    public void testMemoryBackendOpensMemoryStores() {
+        assertTrue(StorageBackend.MEMORY.openUserStore() instanceof MemoryUserStore);
+        assertTrue(StorageBackend.MEMORY.openScoreStore() instanceof MemoryScoreStore);
+    }
+}
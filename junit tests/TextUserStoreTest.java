@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import storage.FileManager;
+import storage.MemoryScoreStore;
+import storage.TextUserStore;
+import storage.User;
+import utils.PasswordHasher;
+
+public class TextUserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileManager fileManager;
+
+    private FileManager open(Path file) {
+        System.setProperty("storage.watchFiles", "false");
+        try {
+            fileManager = new FileManager(new TextUserStore(file.toString()), new MemoryScoreStore(), 10);
+        } finally {
+            System.clearProperty("storage.watchFiles");
+        }
+        return fileManager;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (fileManager != null) {
+            fileManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplaySkipsHeader() throws IOException {
+        Path file = tempDir.resolve("user_accounts.txt");
+        String hashed = PasswordHasher.hash("secret", 1000);
+        Files.write(file, List.of(TextUserStore.FORMAT_HEADER, "alice," + hashed));
+
+        TextUserStore store = new TextUserStore(file.toString());
+        List<User> users = store.replay();
+        assertEquals(1, users.size());
+        assertEquals("alice", users.get(0).getUsername());
+        assertTrue(store.isMigrated());
+    }
+
+    @Test
+    public void testFirstAppendWritesHeader() throws IOException {
+        Path file = tempDir.resolve("user_accounts.txt");
+        TextUserStore store = new TextUserStore(file.toString());
+        assertTrue(store.replay().isEmpty());
+        assertTrue(store.isMigrated());
+
+        store.append(List.of(new User("alice", PasswordHasher.hash("secret", 1000), true)));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(TextUserStore.FORMAT_HEADER, lines.get(0));
+        assertEquals(2, lines.size());
+    }
+
+    @Test
+    public void testOldFileIsMigratedOnce() throws IOException {
+        Path file = tempDir.resolve("user_accounts.txt");
+        Files.write(file, List.of("bob,plainpw"));
+        TextUserStore old = new TextUserStore(file.toString());
+        old.replay();
+        assertFalse(old.isMigrated());
+
+        FileManager fm = open(file);
+        fm.getPersister().flush();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(TextUserStore.FORMAT_HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith("bob," + PasswordHasher.PREFIX + "$"));
+        assertTrue(fm.validateLogin("bob", "plainpw"));
+
+        TextUserStore reopened = new TextUserStore(file.toString());
+        reopened.replay();
+        assertTrue(reopened.isMigrated());
+    }
+
+    @Test
+    public void testMigratedFileSkipsPerRecordCheck() throws IOException {
+        Path file = tempDir.resolve("user_accounts.txt");
+        // A header promises every password is encrypted, so records are not inspected
+        List<String> contents = List.of(TextUserStore.FORMAT_HEADER, "carol,plainpw");
+        Files.write(file, contents);
+
+        FileManager fm = open(file);
+        fm.getPersister().flush();
+        assertEquals("plainpw", fm.getUser("carol").getPassword());
+        assertEquals(contents, Files.readAllLines(file));
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import storage.WriteBehindPersister;
+
+public class WriteBehindPersisterTest {
+
+    @Test
+    public void testWritesUnderOneKeyCoalesce() {
+        // A long interval, so only the explicit flush runs the writes
+        WriteBehindPersister persister = new WriteBehindPersister(60_000);
+        List<String> written = new ArrayList<>();
+        try {
+            persister.submit("scores", () -> written.add("scores 1"));
+            persister.submit("users", () -> written.add("users"));
+            persister.submit("scores", () -> written.add("scores 2"));
+            assertEquals(3, persister.getQueueDepth());
+            assertTrue(written.isEmpty());
+
+            persister.flush();
+            assertEquals(List.of("scores 2", "users"), written);
+            assertEquals(0, persister.getQueueDepth());
+        } finally {
+            persister.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmitAfterShutdownWritesAtOnce() {
+        WriteBehindPersister persister = new WriteBehindPersister(60_000);
+        List<String> written = new ArrayList<>();
+        persister.submit("scores", () -> written.add("queued"));
+        persister.shutdown();
+        assertEquals(List.of("queued"), written);
+
+        persister.submit("scores", () -> written.add("late"));
+        assertEquals(List.of("queued", "late"), written);
+    }
+}
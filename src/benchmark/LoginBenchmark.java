@@ -0,0 +1,123 @@
+package benchmark;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import storage.FileManager;
+import storage.MemoryScoreStore;
+import storage.MemoryUserStore;
+
+/**
+ * LoginBenchmark measures login throughput and latency through
+ * FileManager.validateLogin at several PBKDF2 cost levels, with many
+ * logins running at once, so a cost can be picked that keeps the p99
+ * login latency within budget. Accounts live in memory only.
+ *
+ * Usage: java benchmark.LoginBenchmark [threads] [loginsPerLevel] [budgetMs] [cost...]
+ * The chosen cost is then set with -Dsecurity.passwordIterations.
+ */
+public class LoginBenchmark {
+
+    private static final int ACCOUNTS = 64;
+    private static final int WARMUP_LOGINS = 20;
+    private static final int[] DEFAULT_COSTS = {10_000, 50_000, 100_000, 200_000, 400_000};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int logins = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        double budgetMs = args.length > 2 ? Double.parseDouble(args[2]) : 250;
+        int[] costs = args.length > 3
+                ? Arrays.stream(args, 3, args.length).mapToInt(Integer::parseInt).toArray()
+                : DEFAULT_COSTS;
+
+        System.out.printf("%d threads, %d logins per level, p99 budget %.0f ms%n", threads, logins, budgetMs);
+        System.out.printf("%10s %12s %10s %10s %10s%n", "cost", "logins/s", "p50 ms", "p99 ms", "max ms");
+        int best = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int cost : costs) {
+                double[] result = run(pool, threads, logins, cost);
+                System.out.printf("%10d %12.1f %10.2f %10.2f %10.2f%n", cost, result[0], result[1], result[2], result[3]);
+                if (result[2] <= budgetMs) {
+                    best = Math.max(best, cost);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        if (best > 0) {
+            System.out.println("Highest cost within budget: -Dsecurity.passwordIterations=" + best);
+        } else {
+            System.out.println("No cost level met the budget");
+        }
+    }
+
+    /**
+     * Runs one cost level.
+     * @return throughput in logins per second, then p50, p99 and max latency in ms
+     */
+    private static double[] run(ExecutorService pool, int threads, int logins, int cost) throws Exception {
+        // New hashes use this cost, and logins do not rehash records made at it
+        System.setProperty("security.passwordIterations", String.valueOf(cost));
+        FileManager fileManager = new FileManager(new MemoryUserStore(), new MemoryScoreStore(), 1000);
+        try {
+            fileManager.addUsers(IntStream.range(0, ACCOUNTS).mapToObj(
+                    i -> (Map.Entry<String, String>) new AbstractMap.SimpleEntry<>("user" + i, "password" + i)));
+            for (int i = 0; i < WARMUP_LOGINS; i++) {
+                fileManager.validateLogin("user" + (i % ACCOUNTS), "password" + (i % ACCOUNTS));
+            }
+
+            int perThread = Math.max(1, logins / threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                futures.add(pool.submit(() -> {
+                    long[] nanos = new long[perThread];
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        int account = (first + i * threads) % ACCOUNTS;
+                        long begin = System.nanoTime();
+                        if (!fileManager.validateLogin("user" + account, "password" + account)) {
+                            throw new IllegalStateException("Login failed for user" + account);
+                        }
+                        nanos[i] = System.nanoTime() - begin;
+                    }
+                    return nanos;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] all = new long[perThread * threads];
+            int count = 0;
+            for (Future<long[]> future : futures) {
+                long[] nanos = future.get();
+                System.arraycopy(nanos, 0, all, count, nanos.length);
+                count += nanos.length;
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            Arrays.sort(all);
+            return new double[] {
+                    all.length / seconds,
+                    percentile(all, 0.50) / 1e6,
+                    percentile(all, 0.99) / 1e6,
+                    all[all.length - 1] / 1e6
+            };
+        } finally {
+            fileManager.shutdown();
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -13,23 +13,22 @@ import manager.HighScoreController;
 
 import java.util.List;
 
-public class Blackjack {
+/**
+ * Blackjack is the JavaFX view of a BlackjackEngine: it forwards button
+ * presses to the engine and redraws the table from the engine's state and
+ * events.
+ */
+public class Blackjack implements BlackjackListener {
 
-    private static final int STARTING_BALANCE = 1000;
-    private static final int MIN_BET = 10;
+    private static final int MIN_BET = BlackjackEngine.MIN_BET;
 
     private final String username;
-    private final Deck deck = new Deck();
-
+    private final BlackjackEngine engine;
     private final Player player;
     private final BotPlayer bot1;
     private final BotPlayer bot2;
     private final Dealer dealer;
 
-    // 0 = human, 1 = AI1, 2 = AI2, 3 = dealer
-    private int currentTurnIndex = 0;
-    private boolean roundActive = false;
-
     // UI elements
     private Label statusLabel;
     private Label turnLabel;
@@ -47,10 +46,16 @@ public class Blackjack {
 
     public Blackjack(String username) {
         this.username = username;
-        player = new HumanPlayer(username, STARTING_BALANCE);
-        bot1 = new BotPlayer("AI 1", STARTING_BALANCE, 16);
-        bot2 = new BotPlayer("AI 2", STARTING_BALANCE, 18);
-        dealer = new Dealer(0); // dealer balance not needed
+        engine = new BlackjackEngine(username);
+        engine.addListener(this);
+        player = engine.getPlayer();
+        bot1 = engine.getBot1();
+        bot2 = engine.getBot2();
+        dealer = engine.getDealer();
+    }
+
+    public BlackjackEngine getEngine() {
+        return engine;
     }
 
     // === accessors for SaveGame ===
@@ -71,20 +76,20 @@ public class Blackjack {
         return dealer;
     }
 
-    public Deck getDeck() {
-        return deck;
+    public Shoe getShoe() {
+        return engine.getShoe();
     }
 
     public int getCurrentTurnIndex() {
-        return currentTurnIndex;
+        return engine.getCurrentTurnIndex();
     }
 
     public void setCurrentTurnIndex(int index) {
-        this.currentTurnIndex = index;
+        engine.setCurrentTurnIndex(index);
     }
 
     public void setRoundActive(boolean active) {
-        this.roundActive = active;
+        engine.setRoundActive(active);
     }
 
     // === Scenes ===
@@ -146,32 +151,20 @@ public class Blackjack {
                 Scene sceneWithToolbar = new Scene(rootWithToolbar, gameScene.getWidth(), gameScene.getHeight() + 50);
                 stage.setScene(sceneWithToolbar);
 
-                updateAllPlayerViews();
-                updateTurnLabel();
-                
+                refreshTable();
+
                 // Restore button states based on game state
-                if (roundActive) {
-                    if (currentTurnIndex == 0) {
-                        // Player's turn - enable hit/stand
-                        hitButton.setDisable(false);
-                        standButton.setDisable(false);
-                        dealButton.setDisable(true);
-                        statusLabel.setText("Game loaded. Your turn!");
-                    } else {
-                        // Not player's turn - continue game automatically
-                        hitButton.setDisable(true);
-                        standButton.setDisable(true);
-                        dealButton.setDisable(true);
-                        statusLabel.setText("Game loaded. Continuing...");
-                        // Continue the game from where it left off
-                        // Use Platform.runLater to ensure UI is ready
-                        Platform.runLater(() -> continueGameAfterLoad());
-                    }
+                if (engine.isPlayerTurn()) {
+                    statusLabel.setText("Game loaded. Your turn!");
+                } else if (engine.isRoundActive()) {
+                    // Not player's turn - continue game automatically
+                    statusLabel.setText("Game loaded. Continuing...");
+                    // Use Platform.runLater to ensure UI is ready
+                    Platform.runLater(() -> {
+                        engine.continueAfterLoad();
+                        refreshTable();
+                    });
                 } else {
-                    // Round not active - ready for new round
-                    hitButton.setDisable(true);
-                    standButton.setDisable(true);
-                    dealButton.setDisable(false);
                     statusLabel.setText("Game loaded. Place your bet and press Deal to start.");
                 }
             } catch (IllegalArgumentException ex) {
@@ -242,8 +235,6 @@ public class Blackjack {
         hitButton.setOnAction(e -> onHit());
         standButton = new Button("Stand");
         standButton.setOnAction(e -> onStand());
-        hitButton.setDisable(true);
-        standButton.setDisable(true);
 
         saveButton = new Button("Save Game");
         saveButton.setOnAction(e -> onSave());
@@ -258,8 +249,7 @@ public class Blackjack {
 
         root.setBottom(bottomBox);
 
-        updateAllPlayerViews();
-        updateTurnLabel();
+        refreshTable();
 
         return new Scene(root, 1000, 650);
     }
@@ -338,8 +328,20 @@ public class Blackjack {
         return l;
     }
 
+    /**
+     * Redraws every hand, the turn label and which buttons are enabled.
+     */
+    private void refreshTable() {
+        updateAllPlayerViews();
+        updateTurnLabel();
+        boolean playerTurn = engine.isPlayerTurn();
+        hitButton.setDisable(!playerTurn);
+        standButton.setDisable(!playerTurn);
+        dealButton.setDisable(engine.isRoundActive());
+    }
+
     private void updateAllPlayerViews() {
-        boolean hideDealerSecond = roundActive && currentTurnIndex != 3;
+        boolean hideDealerSecond = engine.isHoleCardHidden();
         updateParticipantBox(playerBox, player, hideDealerSecond);
         updateParticipantBox(ai1Box, bot1, hideDealerSecond);
         updateParticipantBox(ai2Box, bot2, hideDealerSecond);
@@ -348,7 +350,7 @@ public class Blackjack {
 
     private void updateTurnLabel() {
         String who;
-        switch (currentTurnIndex) {
+        switch (engine.getCurrentTurnIndex()) {
             case 0 -> who = player.getName();
             case 1 -> who = bot1.getName();
             case 2 -> who = bot2.getName();
@@ -361,321 +363,82 @@ public class Blackjack {
     // === Game flow ===
 
     private void onDeal() {
-        if (roundActive) {
-            statusLabel.setText("Round already in progress.");
-            return;
-        }
-
         try {
             int bet = Integer.parseInt(betField.getText().trim());
-            if (bet < MIN_BET) {
-                showAlert("Invalid Bet", "Bet must be at least $" + MIN_BET);
-                return;
-            }
-            if (bet > player.getBalance()) {
-                showAlert("Invalid Bet", "You don't have enough balance.");
-                return;
-            }
-
-            player.resetForNewRound();
-            bot1.resetForNewRound();
-            bot2.resetForNewRound();
-            dealer.resetForNewRound();
-
-            player.placeBet(bet);
-            bot1.placeBet(bet);
-            bot2.placeBet(bet);
-
-            // initial deal 2 cards each
-            for (int i = 0; i < 2; i++) {
-                player.addCard(deck.drawCard());
-                bot1.addCard(deck.drawCard());
-                bot2.addCard(deck.drawCard());
-                dealer.addCard(deck.drawCard());
-            }
-
-            roundActive = true;
-            currentTurnIndex = 0;
-            updateAllPlayerViews();
-            updateTurnLabel();
-
-            hitButton.setDisable(false);
-            standButton.setDisable(false);
-            dealButton.setDisable(true);
-
-            statusLabel.setText("Round started. Your move!");
-
-            checkInitialBlackjack();
-
+            engine.deal(bet);
         } catch (NumberFormatException e) {
             showAlert("Invalid Bet", "Please enter a numeric bet amount.");
         } catch (IllegalArgumentException e) {
-            showAlert("Bet Error", e.getMessage());
+            showAlert("Invalid Bet", e.getMessage());
+        } catch (IllegalStateException e) {
+            statusLabel.setText(e.getMessage());
         }
+        refreshTable();
     }
 
-    private void checkInitialBlackjack() {
-        boolean playerBJ = player.hasBlackjack();
-        boolean bot1BJ = bot1.hasBlackjack();
-        boolean bot2BJ = bot2.hasBlackjack();
-        boolean dealerBJ = dealer.hasBlackjack();
+    private void onHit() {
+        engine.hit();
+        refreshTable();
+    }
 
-        // If no one has blackjack, continue normal play
-        if (!playerBJ && !bot1BJ && !bot2BJ && !dealerBJ) {
-            return;
-        }
+    private void onStand() {
+        engine.stand();
+        refreshTable();
+    }
+
+    // === Engine events ===
 
-        // Handle dealer blackjack - round ends for everyone
+    @Override
+    public void roundStarted() {
+        statusLabel.setText("Round started. Your move!");
+    }
+
+    @Override
+    public void initialBlackjack(boolean playerBJ, boolean bot1BJ, boolean bot2BJ, boolean dealerBJ) {
         if (dealerBJ) {
-            if (playerBJ) {
-                // Both player and dealer have blackjack - push for player
-                player.pushBet();
-            } else {
-                // Only dealer has blackjack - player loses
-                player.loseBet();
-            }
-            
-            if (bot1BJ) {
-                bot1.pushBet();
-            } else {
-                bot1.loseBet();
-            }
-            
-            if (bot2BJ) {
-                bot2.pushBet();
-            } else {
-                bot2.loseBet();
-            }
-            
-            statusLabel.setText("Dealer has Blackjack. " + 
+            statusLabel.setText("Dealer has Blackjack. " +
                 (playerBJ ? "You push." : "Everyone loses."));
-            
-            // Round ends when dealer has blackjack
-            roundActive = false;
-            hitButton.setDisable(true);
-            standButton.setDisable(true);
-            dealButton.setDisable(false);
-            updateAllPlayerViews();
             return;
         }
-        
-        // Dealer doesn't have blackjack - handle player blackjacks
-        // Players with blackjack win immediately, but round continues for others
         StringBuilder msg = new StringBuilder();
-        boolean allPlayersHaveBJ = playerBJ && bot1BJ && bot2BJ;
-        
         if (playerBJ) {
-            player.winBet();
-            player.stand(); // Player with blackjack is done
             msg.append("You have Blackjack! ");
         }
         if (bot1BJ) {
-            bot1.winBet();
-            bot1.stand(); // Bot1 with blackjack is done
             msg.append("AI 1 has Blackjack! ");
         }
         if (bot2BJ) {
-            bot2.winBet();
-            bot2.stand(); // Bot2 with blackjack is done
             msg.append("AI 2 has Blackjack! ");
         }
-        
-        if (msg.length() > 0) {
-            msg.append("Round continues for others.");
-            statusLabel.setText(msg.toString());
-        }
-        
-        // If all players have blackjack, round ends
-        if (allPlayersHaveBJ) {
-            roundActive = false;
-            hitButton.setDisable(true);
-            standButton.setDisable(true);
-            dealButton.setDisable(false);
-        } else {
-            // Round continues for players without blackjack
-            // If player has blackjack, they're done - advance to next turn
-            if (playerBJ) {
-                // Player is done, advance to bots
-                advanceTurn();
-            }
-            // Otherwise, player can still play (buttons already enabled)
-        }
-        
-        updateAllPlayerViews();
-    }
-
-    private void onHit() {
-        if (!roundActive || currentTurnIndex != 0) {
-            return;
-        }
-        player.addCard(deck.drawCard());
-        updateAllPlayerViews();
-        if (player.isBusted()) {
-            statusLabel.setText("You busted! Round continues for others.");
-            // Disable player buttons since they're done
-            hitButton.setDisable(true);
-            standButton.setDisable(true);
-            // Advance to next turn so bots and dealer can still play
-            advanceTurn();
-        }
-    }
-
-    private void onStand() {
-        if (!roundActive || currentTurnIndex != 0) {
-            return;
-        }
-        player.stand();
-        advanceTurn();
+        msg.append("Round continues for others.");
+        statusLabel.setText(msg.toString());
     }
 
-    private void advanceTurn() {
-        currentTurnIndex++;
-
-        while (roundActive && currentTurnIndex <= 3) {
-            updateTurnLabel();
-            if (currentTurnIndex == 1) {
-                autoPlay(bot1);
-                currentTurnIndex++; // Move to next turn
-            } else if (currentTurnIndex == 2) {
-                autoPlay(bot2);
-                currentTurnIndex++; // Move to next turn
-            } else if (currentTurnIndex == 3) {
-                autoPlay(dealer);
-                endRound();
-                break;
-            }
-        }
-        updateAllPlayerViews();
+    @Override
+    public void playerBusted() {
+        statusLabel.setText("You busted! Round continues for others.");
     }
-    
-    private void continueGameAfterLoad() {
-        // Continue the game from the current turn index
-        // This is called after loading a save state when it's not the player's turn
-        if (!roundActive) {
-            return;
-        }
-        
-        // Set standing flags based on turn index
-        // If turnIndex > 0, player has already stood
-        if (currentTurnIndex > 0) {
-            player.stand();
-        }
-        // If turnIndex > 1, bot1 has already played (stood or busted)
-        if (currentTurnIndex > 1 && !bot1.isBusted()) {
-            bot1.stand();
-        }
-        // If turnIndex > 2, bot2 has already played (stood or busted)
-        if (currentTurnIndex > 2 && !bot2.isBusted()) {
-            bot2.stand();
-        }
-        
-        // If it's already the dealer's turn, play dealer and end round
-        if (currentTurnIndex == 3) {
-            updateTurnLabel();
-            autoPlay(dealer);
-            endRound();
-            return;
-        }
-        
-        // Continue from current turn
-        while (roundActive && currentTurnIndex <= 3) {
-            updateTurnLabel();
-            if (currentTurnIndex == 1) {
-                autoPlay(bot1);
-                currentTurnIndex++; // Move to next turn
-            } else if (currentTurnIndex == 2) {
-                autoPlay(bot2);
-                currentTurnIndex++; // Move to next turn
-            } else if (currentTurnIndex == 3) {
-                autoPlay(dealer);
-                endRound();
-                break;
-            }
-        }
-        updateAllPlayerViews();
-    }
-
-    private void autoPlay(Player participant) {
-        while (participant.shouldHit()) {
-            participant.addCard(deck.drawCard());
-        }
-    }
-
-    private void endRound() {
-        roundActive = false;
-        hitButton.setDisable(true);
-        standButton.setDisable(true);
-        dealButton.setDisable(false);
 
-        updateAllPlayerViews();
-
-        int dealerValue = dealer.getHandValue();
-        if (dealerValue > 21) {
+    @Override
+    public void roundEnded(RoundOutcome playerOutcome, boolean dealerBusted) {
+        if (dealerBusted) {
             statusLabel.setText("Dealer busted! All non-busted players win.");
-            settleAgainstDealerBust();
         } else {
-            settleAgainstDealer();
+            statusLabel.setText(switch (playerOutcome) {
+                case BUST -> "You busted. ";
+                case WIN -> "You win! ";
+                case LOSE -> "You lose. ";
+                case PUSH -> "Push (tie). ";
+                case BLACKJACK -> "Round over.";
+            });
         }
-        
+
         // Save high score (use player's balance as score)
         String currentUser = manager.GameManager.getCurrentUser();
         if (currentUser != null && !currentUser.isEmpty()) {
             int playerBalance = player.getBalance();
             HighScoreController.updateScore(currentUser, playerBalance, "blackjack");
         }
-        
-        // Reshuffle deck after round ends
-        deck.reset();
-    }
-
-    private void settleAgainstDealerBust() {
-        for (Player p : List.of(player, bot1, bot2)) {
-            // Skip players who already have blackjack - they've already been paid
-            if (p.hasBlackjack()) {
-                continue;
-            }
-            
-            if (!p.isBusted()) {
-                p.winBet();
-            } else {
-                p.loseBet();
-            }
-        }
-        updateAllPlayerViews();
-    }
-
-    private void settleAgainstDealer() {
-        int dealerValue = dealer.getHandValue();
-        StringBuilder sb = new StringBuilder();
-
-        for (Player p : List.of(player, bot1, bot2)) {
-            // Skip players who already have blackjack - they've already been paid
-            if (p.hasBlackjack()) {
-                continue;
-            }
-            
-            int value = p.getHandValue();
-
-            if (p.isBusted()) {
-                p.loseBet();
-                if (p == player) sb.append("You busted. ");
-            } else if (value > dealerValue) {
-                p.winBet();
-                if (p == player) sb.append("You win! ");
-            } else if (value < dealerValue) {
-                p.loseBet();
-                if (p == player) sb.append("You lose. ");
-            } else {
-                p.pushBet();
-                if (p == player) sb.append("Push (tie). ");
-            }
-        }
-
-        if (sb.length() == 0) {
-            sb.append("Round over.");
-        }
-        statusLabel.setText(sb.toString());
-        updateAllPlayerViews();
     }
 
     private void onSave() {
@@ -685,19 +448,9 @@ public class Blackjack {
     }
 
     private void startNewRound() {
-        roundActive = false;
-        hitButton.setDisable(true);
-        standButton.setDisable(true);
-        dealButton.setDisable(false);
+        engine.startNewRound();
         statusLabel.setText("Enter bet Deal to start:");
-        currentTurnIndex = 0;
-
-        player.resetForNewRound();
-        bot1.resetForNewRound();
-        bot2.resetForNewRound();
-        dealer.resetForNewRound();
-        updateAllPlayerViews();
-        updateTurnLabel();
+        refreshTable();
     }
 
     private void showAlert(String title, String message) {
@@ -0,0 +1,359 @@
+package blackjack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BlackjackEngine holds the rules of a round for one human player, two bots
+ * and the dealer, with no UI. deal(), hit() and stand() move the round
+ * between states, and each change is reported to the registered
+ * BlackjackListeners. The JavaFX Blackjack class is a view on top of it;
+ * tests and simulations can drive it directly.
+ */
+public class BlackjackEngine {
+
+    public static final int STARTING_BALANCE = 1000;
+    public static final int MIN_BET = 10;
+
+    // Turn order: 0 = human, 1 = AI1, 2 = AI2, 3 = dealer
+    public static final int PLAYER_TURN = 0;
+    public static final int DEALER_TURN = 3;
+
+    private final Shoe shoe;
+    private final Player player;
+    private final BotPlayer bot1;
+    private final BotPlayer bot2;
+    private final Dealer dealer;
+    private final List<BlackjackListener> listeners = new ArrayList<>();
+
+    private int currentTurnIndex = PLAYER_TURN;
+    private boolean roundActive = false;
+
+    /**
+     * Seats the user against the usual two bots (hitting below 16 and 18).
+     * @param username the human player's name
+     */
+    public BlackjackEngine(String username) {
+        this(new HumanPlayer(username, STARTING_BALANCE),
+                new BotPlayer("AI 1", STARTING_BALANCE, 16),
+                new BotPlayer("AI 2", STARTING_BALANCE, 18),
+                new Dealer(0), // dealer balance not needed
+                new Shoe());
+    }
+
+    public BlackjackEngine(Player player, BotPlayer bot1, BotPlayer bot2, Dealer dealer, Shoe shoe) {
+        this.player = player;
+        this.bot1 = bot1;
+        this.bot2 = bot2;
+        this.dealer = dealer;
+        this.shoe = shoe;
+    }
+
+    public void addListener(BlackjackListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BlackjackListener listener) {
+        listeners.remove(listener);
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public BotPlayer getBot1() {
+        return bot1;
+    }
+
+    public BotPlayer getBot2() {
+        return bot2;
+    }
+
+    public Dealer getDealer() {
+        return dealer;
+    }
+
+    public Shoe getShoe() {
+        return shoe;
+    }
+
+    public int getCurrentTurnIndex() {
+        return currentTurnIndex;
+    }
+
+    public void setCurrentTurnIndex(int index) {
+        this.currentTurnIndex = index;
+    }
+
+    public boolean isRoundActive() {
+        return roundActive;
+    }
+
+    public void setRoundActive(boolean active) {
+        this.roundActive = active;
+    }
+
+    /**
+     * @return true while the dealer's second card is still face down
+     */
+    public boolean isHoleCardHidden() {
+        return roundActive && currentTurnIndex != DEALER_TURN;
+    }
+
+    /**
+     * @return true when the human player may hit or stand
+     */
+    public boolean isPlayerTurn() {
+        return roundActive && currentTurnIndex == PLAYER_TURN;
+    }
+
+    /**
+     * Clears every hand and waits for the next deal.
+     */
+    public void startNewRound() {
+        roundActive = false;
+        currentTurnIndex = PLAYER_TURN;
+        resetHands();
+    }
+
+    /**
+     * Places the same bet for the player and both bots, deals two cards
+     * each, and settles any opening blackjacks. The shoe is reshuffled
+     * first if the cut card came out during an earlier round.
+     * @param bet the bet amount
+     * @throws IllegalStateException if a round is already in progress
+     * @throws IllegalArgumentException if the bet is below the minimum or
+     *         above the player's balance
+     */
+    public void deal(int bet) {
+        if (roundActive) {
+            throw new IllegalStateException("Round already in progress.");
+        }
+        if (bet < MIN_BET) {
+            throw new IllegalArgumentException("Bet must be at least $" + MIN_BET);
+        }
+        if (bet > player.getBalance()) {
+            throw new IllegalArgumentException("You don't have enough balance.");
+        }
+
+        if (shoe.reshuffleIfPastCutCard()) {
+            for (BlackjackListener listener : listeners) {
+                listener.shoeShuffled();
+            }
+        }
+        resetHands();
+        player.placeBet(bet);
+        bot1.placeBet(bet);
+        bot2.placeBet(bet);
+
+        // initial deal 2 cards each
+        for (int i = 0; i < 2; i++) {
+            dealTo(player);
+            dealTo(bot1);
+            dealTo(bot2);
+            dealTo(dealer);
+        }
+
+        roundActive = true;
+        currentTurnIndex = PLAYER_TURN;
+        for (BlackjackListener listener : listeners) {
+            listener.roundStarted();
+        }
+        checkInitialBlackjack();
+    }
+
+    /**
+     * Deals the human player one card. If that busts them, play moves on.
+     * @return false if it is not the player's turn
+     */
+    public boolean hit() {
+        if (!isPlayerTurn()) {
+            return false;
+        }
+        dealTo(player);
+        if (player.isBusted()) {
+            for (BlackjackListener listener : listeners) {
+                listener.playerBusted();
+            }
+            // Advance so bots and dealer can still play
+            advanceTurn();
+        }
+        return true;
+    }
+
+    /**
+     * Ends the human player's turn and plays out the bots and the dealer.
+     * @return false if it is not the player's turn
+     */
+    public boolean stand() {
+        if (!isPlayerTurn()) {
+            return false;
+        }
+        player.stand();
+        advanceTurn();
+        return true;
+    }
+
+    /**
+     * Plays out a loaded round from its saved turn. Participants whose turn
+     * has passed are marked as standing first.
+     */
+    public void continueAfterLoad() {
+        if (!roundActive) {
+            return;
+        }
+
+        // If turnIndex > 0, player has already stood
+        if (currentTurnIndex > PLAYER_TURN) {
+            player.stand();
+        }
+        // If turnIndex > 1, bot1 has already played (stood or busted)
+        if (currentTurnIndex > 1 && !bot1.isBusted()) {
+            bot1.stand();
+        }
+        // If turnIndex > 2, bot2 has already played (stood or busted)
+        if (currentTurnIndex > 2 && !bot2.isBusted()) {
+            bot2.stand();
+        }
+        playRemainingTurns();
+    }
+
+    private void resetHands() {
+        player.resetForNewRound();
+        bot1.resetForNewRound();
+        bot2.resetForNewRound();
+        dealer.resetForNewRound();
+    }
+
+    private void dealTo(Player participant) {
+        Card card = shoe.drawCard();
+        participant.addCard(card);
+        for (BlackjackListener listener : listeners) {
+            listener.cardDealt(participant, card);
+        }
+    }
+
+    private void checkInitialBlackjack() {
+        boolean playerBJ = player.hasBlackjack();
+        boolean bot1BJ = bot1.hasBlackjack();
+        boolean bot2BJ = bot2.hasBlackjack();
+        boolean dealerBJ = dealer.hasBlackjack();
+
+        // If no one has blackjack, continue normal play
+        if (!playerBJ && !bot1BJ && !bot2BJ && !dealerBJ) {
+            return;
+        }
+
+        if (dealerBJ) {
+            // Round ends for everyone; a player blackjack pushes
+            settleAgainstDealerBlackjack(player, playerBJ);
+            settleAgainstDealerBlackjack(bot1, bot1BJ);
+            settleAgainstDealerBlackjack(bot2, bot2BJ);
+            roundActive = false;
+            fireInitialBlackjack(playerBJ, bot1BJ, bot2BJ, true);
+            return;
+        }
+
+        // Players with blackjack win immediately, but round continues for others
+        for (Player p : List.of(player, bot1, bot2)) {
+            if (p.hasBlackjack()) {
+                p.winBet();
+                p.stand();
+            }
+        }
+        if (playerBJ && bot1BJ && bot2BJ) {
+            roundActive = false;
+        }
+        fireInitialBlackjack(playerBJ, bot1BJ, bot2BJ, false);
+        if (roundActive && playerBJ) {
+            // Player is done, advance to bots
+            advanceTurn();
+        }
+    }
+
+    private static void settleAgainstDealerBlackjack(Player p, boolean hasBlackjack) {
+        if (hasBlackjack) {
+            p.pushBet();
+        } else {
+            p.loseBet();
+        }
+    }
+
+    private void fireInitialBlackjack(boolean playerBJ, boolean bot1BJ, boolean bot2BJ, boolean dealerBJ) {
+        for (BlackjackListener listener : listeners) {
+            listener.initialBlackjack(playerBJ, bot1BJ, bot2BJ, dealerBJ);
+        }
+    }
+
+    private void advanceTurn() {
+        currentTurnIndex++;
+        playRemainingTurns();
+    }
+
+    private void playRemainingTurns() {
+        while (roundActive && currentTurnIndex <= DEALER_TURN) {
+            for (BlackjackListener listener : listeners) {
+                listener.turnChanged(currentTurnIndex);
+            }
+            if (currentTurnIndex == 1) {
+                autoPlay(bot1);
+                currentTurnIndex++;
+            } else if (currentTurnIndex == 2) {
+                autoPlay(bot2);
+                currentTurnIndex++;
+            } else if (currentTurnIndex == DEALER_TURN) {
+                autoPlay(dealer);
+                endRound();
+                break;
+            } else {
+                // The human player's turn only ends through hit() or stand()
+                break;
+            }
+        }
+    }
+
+    private void autoPlay(Player participant) {
+        while (participant.shouldHit()) {
+            dealTo(participant);
+        }
+    }
+
+    private void endRound() {
+        roundActive = false;
+
+        boolean dealerBusted = dealer.getHandValue() > 21;
+        RoundOutcome playerOutcome = settle(player, dealerBusted);
+        settle(bot1, dealerBusted);
+        settle(bot2, dealerBusted);
+
+        for (BlackjackListener listener : listeners) {
+            listener.roundEnded(playerOutcome, dealerBusted);
+        }
+    }
+
+    /**
+     * Pays out one hand against the dealer's final hand.
+     */
+    private RoundOutcome settle(Player p, boolean dealerBusted) {
+        // Skip players who already have blackjack - they've already been paid
+        if (p.hasBlackjack()) {
+            return RoundOutcome.BLACKJACK;
+        }
+        if (p.isBusted()) {
+            p.loseBet();
+            return RoundOutcome.BUST;
+        }
+        int value = p.getHandValue();
+        int dealerValue = dealer.getHandValue();
+        if (dealerBusted || value > dealerValue) {
+            p.winBet();
+            return RoundOutcome.WIN;
+        }
+        if (value < dealerValue) {
+            p.loseBet();
+            return RoundOutcome.LOSE;
+        }
+        p.pushBet();
+        return RoundOutcome.PUSH;
+    }
+}
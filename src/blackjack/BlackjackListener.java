@@ -0,0 +1,57 @@
+package blackjack;
+
+/**
+ * BlackjackListener receives the events a BlackjackEngine emits as a round
+ * moves between states. Every method does nothing by default, so a view
+ * only overrides what it shows. Events are delivered on the thread that
+ * called the engine.
+ */
+public interface BlackjackListener {
+
+    /**
+     * The cut card had come out, so the shoe was reshuffled before the deal.
+     */
+    default void shoeShuffled() {
+    }
+
+    /**
+     * Bets are placed and two cards were dealt to everyone.
+     */
+    default void roundStarted() {
+    }
+
+    /**
+     * Called once the opening hands were checked, if anyone has a blackjack.
+     * With a dealer blackjack the round is already over and settled; otherwise
+     * the players with a blackjack were paid and the round goes on.
+     */
+    default void initialBlackjack(boolean player, boolean bot1, boolean bot2, boolean dealer) {
+    }
+
+    /**
+     * @param participant who received the card
+     * @param card the card dealt
+     */
+    default void cardDealt(Player participant, Card card) {
+    }
+
+    /**
+     * @param turnIndex 0 = human, 1 = AI 1, 2 = AI 2, 3 = dealer
+     */
+    default void turnChanged(int turnIndex) {
+    }
+
+    /**
+     * The human player went over 21; the round continues for the others.
+     */
+    default void playerBusted() {
+    }
+
+    /**
+     * The dealer has played and every bet is settled.
+     * @param playerOutcome how the human player's hand ended
+     * @param dealerBusted true if the dealer went over 21
+     */
+    default void roundEnded(RoundOutcome playerOutcome, boolean dealerBusted) {
+    }
+}
@@ -1,10 +1,39 @@
 package blackjack;
 
+import java.util.Arrays;
+
 public class Card {
 
+        // Ranks and suits in ordinal order: a card's ordinal (0-51) is
+        // suit index * 13 + rank index, so decks and shoes can hold cards
+        // as bytes and turn them back into one of the 52 shared instances
+        private static final char[] RANKS = {'2','3','4','5','6','7','8','9','T','J','Q','K','A'};
+        private static final char[] SUITS = {'H', 'D', 'C', 'S'};
+        private static final int[] BASE_VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+        public static final int COUNT = 52;
+        public static final int ACE_RANK = 12;
+
+        // Index of each rank/suit character, or -1, for O(1) parsing
+        private static final byte[] RANK_INDEX = indexTable(RANKS);
+        private static final byte[] SUIT_INDEX = indexTable(SUITS);
+
+        private static final Card[] CARDS = new Card[COUNT];
+
+        static {
+            for (int i = 0; i < COUNT; i++) {
+                CARDS[i] = new Card(i);
+            }
+        }
+
+        private final byte ordinal;
         private final char rank; // e.g. 'A', 'K', '2', 'T'
         private final char suit; // e.g. 'H', 'D', 'C', 'S'
+        private final String code;
 
+        /**
+         * Creates a card. Prefer of() or fromCode(), which return the shared
+         * instance instead of allocating; cards compare equal either way.
+         */
         public Card(char rank, char suit) {
             if (!isValidRank(rank)) {
                 throw new IllegalArgumentException("Invalid rank: " + rank);
@@ -12,8 +41,46 @@ public class Card {
             if (!isValidSuit(suit)) {
                 throw new IllegalArgumentException("Invalid suit: " + suit);
             }
+            this.ordinal = (byte) ordinalOf(rank, suit);
             this.rank = rank;
             this.suit = suit;
+            this.code = "" + rank + suit;
+        }
+
+        private Card(int ordinal) {
+            this.ordinal = (byte) ordinal;
+            this.rank = RANKS[ordinal % 13];
+            this.suit = SUITS[ordinal / 13];
+            this.code = "" + rank + suit;
+        }
+
+        /**
+         * @param ordinal a card ordinal, 0-51
+         * @return the shared instance of that card
+         */
+        public static Card of(int ordinal) {
+            return CARDS[ordinal];
+        }
+
+        /**
+         * @return the shared instance of the card with this rank and suit
+         * @throws IllegalArgumentException if the rank or suit is invalid
+         */
+        public static Card of(char rank, char suit) {
+            if (!isValidRank(rank)) {
+                throw new IllegalArgumentException("Invalid rank: " + rank);
+            }
+            if (!isValidSuit(suit)) {
+                throw new IllegalArgumentException("Invalid suit: " + suit);
+            }
+            return CARDS[ordinalOf(rank, suit)];
+        }
+
+        /**
+         * @return this card's ordinal, 0-51
+         */
+        public int ordinal() {
+            return ordinal;
         }
 
         public char getRankChar() {
@@ -29,48 +96,62 @@ public class Card {
          * Aces are treated as 11 by default (you adjust down to 1 in hand logic).
          */
         public int getBaseValue() {
-            return switch (rank) {
-                case '2' -> 2;
-                case '3' -> 3;
-                case '4' -> 4;
-                case '5' -> 5;
-                case '6' -> 6;
-                case '7' -> 7;
-                case '8' -> 8;
-                case '9' -> 9;
-                case 'T', 'J', 'Q', 'K' -> 10;
-                case 'A' -> 11;
-                default -> 0;
-            };
+            return BASE_VALUES[ordinal % 13];
+        }
+
+        public boolean isAce() {
+            return ordinal % 13 == ACE_RANK;
+        }
+
+        /**
+         * Base value of a card given by ordinal, for loops over byte decks.
+         */
+        public static int baseValue(int ordinal) {
+            return BASE_VALUES[ordinal % 13];
+        }
+
+        public static boolean isAce(int ordinal) {
+            return ordinal % 13 == ACE_RANK;
         }
 
 
         public String toCode() {
-            return "" + rank + suit;
+            return code;
         }
 
 
+        /**
+         * Looks up a card code such as "AH" in O(1).
+         * @return the shared instance of that card
+         */
         public static Card fromCode(String code) {
             if (code == null || code.length() != 2) {
                 throw new IllegalArgumentException("Invalid card code: " + code);
             }
             char r = code.charAt(0);
             char s = code.charAt(1);
-            return new Card(r, s);
+            return of(r, s);
+        }
+
+        private static int ordinalOf(char r, char s) {
+            return SUIT_INDEX[s] * 13 + RANK_INDEX[r];
         }
 
         private static boolean isValidRank(char r) {
-            return switch (r) {
-                case '2','3','4','5','6','7','8','9','T','J','Q','K','A' -> true;
-                default -> false;
-            };
+            return r < RANK_INDEX.length && RANK_INDEX[r] >= 0;
         }
 
         private static boolean isValidSuit(char s) {
-            return switch (s) {
-                case 'H','D','C','S' -> true;
-                default -> false;
-            };
+            return s < SUIT_INDEX.length && SUIT_INDEX[s] >= 0;
+        }
+
+        private static byte[] indexTable(char[] symbols) {
+            byte[] table = new byte[128];
+            Arrays.fill(table, (byte) -1);
+            for (int i = 0; i < symbols.length; i++) {
+                table[symbols[i]] = (byte) i;
+            }
+            return table;
         }
 
         // Optional helpers for nicer UI text:
@@ -104,6 +185,16 @@ public class Card {
             };
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || (obj instanceof Card && ((Card) obj).ordinal == ordinal);
+        }
+
+        @Override
+        public int hashCode() {
+            return ordinal;
+        }
+
         @Override
         public String toString() {
             return getRankName() + " of " + getSuitName();
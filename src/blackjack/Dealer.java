@@ -14,7 +14,6 @@ public class Dealer extends Player {
         }
 
         // soft 17 logic: hit on soft 17 (has ace counted as 11)
-        boolean hasAce = hand.stream().anyMatch(c -> c.getRankChar() == 'A');
-        return value == 17 && hasAce;
+        return value == 17 && isSoft();
     }
 }
@@ -1,12 +1,17 @@
 package blackjack;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class Player {
 
     protected final String name;
     protected final List<Card> hand = new ArrayList<>();
+    private final List<Card> handView = Collections.unmodifiableList(hand);
+    // Running totals, kept up to date by addCard, so hand checks are O(1)
+    private int hardTotal; // aces counted as 1
+    private int aceCount;
     protected int balance;
     protected int currentBet;
     protected boolean standing;
@@ -21,8 +26,11 @@ public abstract class Player {
         return name;
     }
 
+    /**
+     * @return a read-only view of the hand; add cards with addCard()
+     */
     public List<Card> getHand() {
-        return hand;
+        return handView;
     }
 
     public int getBalance() {
@@ -43,6 +51,8 @@ public abstract class Player {
 
     public void resetForNewRound() {
         hand.clear();
+        hardTotal = 0;
+        aceCount = 0;
         currentBet = 0;
         standing = false;
         busted = false;
@@ -61,30 +71,30 @@ public abstract class Player {
 
     public void addCard(Card card) {
         hand.add(card);
-        int value = getHandValue();
-        if (value > 21) {
+        if (card.isAce()) {
+            aceCount++;
+            hardTotal += 1;
+        } else {
+            hardTotal += card.getBaseValue();
+        }
+        if (hardTotal > 21) {
             busted = true;
         }
     }
 
     /**
-     * Basic blackjack hand value with ace adjustment.
+     * Basic blackjack hand value with ace adjustment, in O(1).
      */
     public int getHandValue() {
-        int total = 0;
-        int aceCount = 0;
-        for (Card c : hand) {
-            total += c.getBaseValue();
-            if (c.getRankChar() == 'A') {
-                aceCount++;
-            }
-        }
-        // adjust aces from 11 to 1 as needed
-        while (total > 21 && aceCount > 0) {
-            total -= 10;
-            aceCount--;
-        }
-        return total;
+        // At most one ace can count as 11 without going over 21
+        return isSoft() ? hardTotal + 10 : hardTotal;
+    }
+
+    /**
+     * @return true if an ace in the hand counts as 11
+     */
+    public boolean isSoft() {
+        return aceCount > 0 && hardTotal + 10 <= 21;
     }
 
     public boolean hasBlackjack() {
@@ -0,0 +1,13 @@
+package blackjack;
+
+/**
+ * How one hand ended against the dealer.
+ */
+public enum RoundOutcome {
+    WIN,
+    LOSE,
+    PUSH,
+    BUST,
+    // Already paid when the opening hands were checked
+    BLACKJACK
+}
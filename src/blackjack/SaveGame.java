@@ -32,7 +32,7 @@ public class SaveGame {
                 .append("|");
 
         // deck
-        List<String> deckCodes = game.getDeck().getRemainingCards()
+        List<String> deckCodes = game.getShoe().getRemainingCards()
                 .stream()
                 .map(Card::toCode)
                 .collect(Collectors.toList());
@@ -64,6 +64,12 @@ public class SaveGame {
         return result;
     }
 
+    private static void addCards(Player participant, List<Card> cards) {
+        for (Card card : cards) {
+            participant.addCard(card);
+        }
+    }
+
     public static void loadFromSaveState(Blackjack game, String saveStateInput) {
         try {
             // Try to decrypt first (new encrypted format)
@@ -116,23 +122,18 @@ public class SaveGame {
             List<Card> ai2Cards = segmentToCards(handParts[2]);
             List<Card> dealerCards = segmentToCards(handParts[3]);
 
-            game.getPlayer().getHand().addAll(playerCards);
-            game.getBot1().getHand().addAll(ai1Cards);
-            game.getBot2().getHand().addAll(ai2Cards);
-            game.getDealer().getHand().addAll(dealerCards);
+            // addCard also keeps the hand totals and busted flags current
+            addCards(game.getPlayer(), playerCards);
+            addCards(game.getBot1(), ai1Cards);
+            addCards(game.getBot2(), ai2Cards);
+            addCards(game.getDealer(), dealerCards);
 
             // deck
             List<String> deckCodes = new ArrayList<>();
             if (!parts[4].isBlank()) {
                 deckCodes.addAll(Arrays.asList(parts[4].split(",")));
             }
-            game.getDeck().setFromCardCodes(deckCodes);
-
-            // recompute busted flags
-            game.getPlayer().busted = game.getPlayer().getHandValue() > 21;
-            game.getBot1().busted = game.getBot1().getHandValue() > 21;
-            game.getBot2().busted = game.getBot2().getHandValue() > 21;
-            game.getDealer().busted = game.getDealer().getHandValue() > 21;
+            game.getShoe().setFromCardCodes(deckCodes);
 
             game.setRoundActive(true);
 
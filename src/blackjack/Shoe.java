@@ -0,0 +1,192 @@
+package blackjack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shoe holds several 52-card decks shuffled together, as dealt at a casino
+ * table. A cut card is placed at the penetration point; once the deal
+ * passes it, reshuffleIfPastCutCard() (called between rounds) shuffles
+ * every card back in. Cards are held as ordinals in a byte array and
+ * reshuffled in place, so dealing and reshuffling allocate nothing.
+ *
+ * The undealt cards are kept so the last one is drawn first, which is the
+ * order getRemainingCards() and setFromCardCodes() use.
+ */
+public class Shoe {
+
+    public static final int DEFAULT_DECKS = 6;
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    private final int deckCount;
+    private final double penetration;
+    private final RandomGenerator random;
+    // cards[0, remaining) are undealt, drawn from the top end; the rest were dealt
+    private byte[] cards;
+    private int remaining;
+    private int cutCard;
+
+    /**
+     * Uses the -Dblackjack.decks and -Dblackjack.penetration settings.
+     */
+    public Shoe() {
+        this(Integer.getInteger("blackjack.decks", DEFAULT_DECKS),
+                Double.parseDouble(System.getProperty("blackjack.penetration", String.valueOf(DEFAULT_PENETRATION))));
+    }
+
+    public Shoe(int deckCount, double penetration) {
+        this(deckCount, penetration, new Random());
+    }
+
+    /**
+     * @param deckCount how many 52-card decks the shoe holds
+     * @param penetration the fraction of the shoe dealt before the cut card
+     *                    comes out, between 0 and 1
+     * @param random the source of shuffles, e.g. a SplittableRandom per
+     *               simulation thread
+     */
+    public Shoe(int deckCount, double penetration, RandomGenerator random) {
+        if (deckCount < 1) {
+            throw new IllegalArgumentException("A shoe needs at least one deck");
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be above 0 and at most 1");
+        }
+        this.deckCount = deckCount;
+        this.penetration = penetration;
+        this.random = random;
+        cards = new byte[deckCount * Card.COUNT];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (byte) (i % Card.COUNT);
+        }
+        shuffle();
+    }
+
+    /**
+     * Gathers every card back into the shoe and shuffles it in place.
+     */
+    public void shuffle() {
+        // Fisher-Yates over the whole shoe, dealt cards included
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+        remaining = cards.length;
+        cutCard = cards.length - (int) Math.round(cards.length * penetration);
+    }
+
+    /**
+     * @return true once the deal has passed the cut card
+     */
+    public boolean isPastCutCard() {
+        return remaining <= cutCard;
+    }
+
+    /**
+     * Reshuffles if the cut card has come out. Call this between rounds.
+     * @return true if the shoe was reshuffled
+     */
+    public boolean reshuffleIfPastCutCard() {
+        if (!isPastCutCard()) {
+            return false;
+        }
+        shuffle();
+        return true;
+    }
+
+    /**
+     * Deals the next card. An empty shoe (possible only with full
+     * penetration) is reshuffled first.
+     * @return the card
+     */
+    public Card drawCard() {
+        return Card.of(drawOrdinal());
+    }
+
+    /**
+     * Deals the next card as its ordinal, for loops that avoid Card lookups.
+     * @return the card ordinal, 0-51
+     */
+    public int drawOrdinal() {
+        if (remaining == 0) {
+            shuffle();
+        }
+        return cards[--remaining];
+    }
+
+    public boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    /**
+     * @return how many cards are left to deal
+     */
+    public int getRemainingCount() {
+        return remaining;
+    }
+
+    /**
+     * @return how many cards the full shoe holds
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    public int getDeckCount() {
+        return deckCount;
+    }
+
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /**
+     * @return the undealt cards; the last one is drawn next
+     */
+    public List<Card> getRemainingCards() {
+        List<Card> result = new ArrayList<>(remaining);
+        for (int i = 0; i < remaining; i++) {
+            result.add(Card.of(cards[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Restores the undealt cards from a save; the last code is drawn next.
+     * Every other card of the shoe counts as dealt, so it comes back at the
+     * next reshuffle. Older saves, dealt from a single 52-card deck, load
+     * the same way.
+     * @param codes the undealt cards' codes
+     */
+    public void setFromCardCodes(List<String> codes) {
+        // How many of each card are not among the undealt ones
+        int[] dealt = new int[Card.COUNT];
+        Arrays.fill(dealt, deckCount);
+        byte[] undealt = new byte[codes.size()];
+        int dealtTotal = Card.COUNT * deckCount;
+        for (int i = 0; i < undealt.length; i++) {
+            int ordinal = Card.fromCode(codes.get(i)).ordinal();
+            undealt[i] = (byte) ordinal;
+            if (dealt[ordinal] > 0) {
+                dealt[ordinal]--;
+                dealtTotal--;
+            }
+        }
+
+        cards = new byte[undealt.length + dealtTotal];
+        System.arraycopy(undealt, 0, cards, 0, undealt.length);
+        int next = undealt.length;
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            for (int n = dealt[ordinal]; n > 0; n--) {
+                cards[next++] = (byte) ordinal;
+            }
+        }
+        remaining = undealt.length;
+        cutCard = cards.length - (int) Math.round(cards.length * penetration);
+    }
+}
@@ -0,0 +1,242 @@
+package blackjack;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * ThresholdSimulator estimates how a BotPlayer hit threshold does at our
+ * table by playing many hands through a headless BlackjackEngine. The
+ * simulated bot takes the human seat, next to the usual AI 1 (16) and
+ * AI 2 (18), against the dealer who hits soft 17, dealt from a six-deck
+ * shoe reshuffled at 75% penetration. Hands are split into chunks run on
+ * all cores with a parallel stream, and each chunk has its own shoe and
+ * SplittableRandom, split from one seed so a run can be repeated.
+ *
+ * Usage: java blackjack.ThresholdSimulator [hands] [minThreshold] [maxThreshold] [seed]
+ * where hands is what each threshold plays in the first sweep.
+ */
+public class ThresholdSimulator {
+
+    private static final int BET = BlackjackEngine.MIN_BET;
+    // Large enough that no chunk can run out of money
+    private static final int BANKROLL = 1_000_000_000;
+    private static final long HANDS_PER_CHUNK = 1_000_000;
+    private static final double Z_95 = 1.96;
+    private static final int MAX_SEARCH_ROUNDS = 6;
+
+    /**
+     * Totals for one threshold, in units of the bet per hand.
+     */
+    public static class Result {
+        private final int threshold;
+        private long hands;
+        private long busts;
+        private double sum;
+        private double sumOfSquares;
+
+        Result(int threshold) {
+            this.threshold = threshold;
+        }
+
+        void record(int net, boolean busted) {
+            hands++;
+            sum += net;
+            sumOfSquares += (double) net * net;
+            if (busted) {
+                busts++;
+            }
+        }
+
+        Result merge(Result other) {
+            hands += other.hands;
+            busts += other.busts;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            return this;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public long getHands() {
+            return hands;
+        }
+
+        /**
+         * @return the expected net win per hand, as a fraction of the bet
+         */
+        public double getExpectedValue() {
+            return hands == 0 ? 0 : sum / hands;
+        }
+
+        public double getVariance() {
+            if (hands < 2) {
+                return 0;
+            }
+            double mean = getExpectedValue();
+            return (sumOfSquares - hands * mean * mean) / (hands - 1);
+        }
+
+        /**
+         * @return the half-width of the 95% confidence interval of the EV
+         */
+        public double getConfidence95() {
+            return hands == 0 ? 0 : Z_95 * Math.sqrt(getVariance() / hands);
+        }
+
+        public double getBustRate() {
+            return hands == 0 ? 0 : (double) busts / hands;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("threshold %2d: EV %+.5f +/- %.5f, variance %.4f, bust %.2f%%, %,d hands",
+                    threshold, getExpectedValue(), getConfidence95(), getVariance(), 100 * getBustRate(), hands);
+        }
+    }
+
+    private final SplittableRandom seedRandom;
+    private long handsPlayed;
+
+    public ThresholdSimulator(long seed) {
+        this.seedRandom = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return every hand simulated so far, including those of candidates
+     *         refine() eliminated
+     */
+    public long getHandsPlayed() {
+        return handsPlayed;
+    }
+
+    /**
+     * Plays hands at one threshold across all cores.
+     * @param threshold the bot hits while its hand is below this value
+     * @param hands how many hands to play
+     * @return the combined totals
+     */
+    public Result simulate(int threshold, long hands) {
+        int chunks = (int) Math.max(1, (hands + HANDS_PER_CHUNK - 1) / HANDS_PER_CHUNK);
+        // Split up front: SplittableRandom must not be shared between threads
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = seedRandom.split();
+        }
+        Result result = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> {
+                    long start = i * HANDS_PER_CHUNK;
+                    return playChunk(threshold, Math.min(HANDS_PER_CHUNK, hands - start), randoms[i]);
+                })
+                // Result is mutable, so this must be collect, not reduce
+                .collect(() -> new Result(threshold), Result::merge, Result::merge);
+        handsPlayed += result.getHands();
+        return result;
+    }
+
+    private static Result playChunk(int threshold, long hands, SplittableRandom random) {
+        Result result = new Result(threshold);
+        BotPlayer seat = new BotPlayer("Sim " + threshold, BANKROLL, threshold);
+        BlackjackEngine engine = new BlackjackEngine(seat,
+                new BotPlayer("AI 1", BANKROLL, 16),
+                new BotPlayer("AI 2", BANKROLL, 18),
+                new Dealer(0),
+                new Shoe(Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, random));
+        for (long h = 0; h < hands; h++) {
+            int before = seat.getBalance();
+            engine.deal(BET);
+            while (engine.isPlayerTurn() && seat.shouldHit()) {
+                engine.hit();
+            }
+            engine.stand();
+            result.record((seat.getBalance() - before) / BET, seat.isBusted());
+        }
+        return result;
+    }
+
+    /**
+     * Plays the same number of hands at every threshold in a range.
+     * @param minThreshold the lowest threshold to try
+     * @param maxThreshold the highest threshold to try
+     * @param hands the hands per threshold
+     * @return one result per threshold, in threshold order
+     */
+    public List<Result> sweep(int minThreshold, int maxThreshold, long hands) {
+        List<Result> results = new ArrayList<>();
+        for (int t = minThreshold; t <= maxThreshold; t++) {
+            results.add(simulate(t, hands));
+        }
+        return results;
+    }
+
+    /**
+     * Narrows a sweep down by successive halving: the better half (by EV)
+     * plays twice as many more hands each round, until the leader's
+     * confidence interval no longer overlaps the runner-up's or the round
+     * limit is reached. The last two candidates are always kept so the
+     * leader can be compared.
+     * @param results a sweep, each threshold having played the given hands
+     * @param hands the hands each threshold played in the sweep
+     * @return the remaining candidates, best first
+     */
+    public List<Result> refine(List<Result> results, long hands) {
+        Comparator<Result> byEv = Comparator.comparingDouble(Result::getExpectedValue).reversed();
+        List<Result> candidates = new ArrayList<>(results);
+        long budget = hands;
+        for (int round = 0; ; round++) {
+            candidates.sort(byEv);
+            if (candidates.size() < 2 || isSeparated(candidates.get(0), candidates.get(1))
+                    || round == MAX_SEARCH_ROUNDS) {
+                return candidates;
+            }
+            budget *= 2;
+            List<Result> next = new ArrayList<>();
+            for (Result r : candidates.subList(0, Math.max(2, (candidates.size() + 1) / 2))) {
+                next.add(r.merge(simulate(r.getThreshold(), budget)));
+            }
+            candidates = next;
+        }
+    }
+
+    /**
+     * @return true if the best result's 95% interval lies wholly above the second's
+     */
+    public static boolean isSeparated(Result best, Result second) {
+        return best.getExpectedValue() - best.getConfidence95()
+                > second.getExpectedValue() + second.getConfidence95();
+    }
+
+    public static void main(String[] args) {
+        long hands = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int min = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int max = args.length > 2 ? Integer.parseInt(args[2]) : 21;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        ThresholdSimulator simulator = new ThresholdSimulator(seed);
+
+        long begin = System.nanoTime();
+        System.out.printf("Sweep, %,d hands per threshold (seed %d):%n", hands, seed);
+        List<Result> sweep = simulator.sweep(min, max, hands);
+        for (Result r : sweep) {
+            System.out.println("  " + r);
+        }
+
+        List<Result> finalists = simulator.refine(sweep, hands);
+        System.out.println("Search:");
+        for (Result r : finalists) {
+            System.out.println("  " + r);
+        }
+        Result best = finalists.get(0);
+        boolean separated = finalists.size() < 2 || isSeparated(best, finalists.get(1));
+        System.out.println("Recommended hit threshold: " + best.getThreshold()
+                + (separated ? "" : " (not separated from " + finalists.get(1).getThreshold()
+                + " at 95%; run more hands)"));
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        long totalHands = simulator.getHandsPlayed();
+        System.out.printf("Played %,d hands in %.1f s (%,.0f hands/s)%n", totalHands, seconds, totalHands / seconds);
+    }
+}
@@ -1,5 +1,6 @@
 package manager;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -17,6 +18,7 @@ public class AccountController {
     private PasswordField passwordField;
     private PasswordField confirmPasswordField;
     private Label messageLabel;
+    private boolean waitingForAccounts;
 
   
     public AccountController() {
@@ -138,8 +140,23 @@ public class AccountController {
             return;
         }
 
-        // Check for duplicate username
+        // Accounts may still be loading in the background, retry once they are in
         FileManager fileManager = GameManager.getFileManager();
+        if (!fileManager.whenUsersLoaded().isDone()) {
+            messageLabel.setText("Loading accounts...");
+            messageLabel.setStyle("-fx-text-fill: #BDC3C7;");
+            // Queue one retry however often the button is clicked
+            if (!waitingForAccounts) {
+                waitingForAccounts = true;
+                fileManager.whenUsersLoaded().thenRun(() -> Platform.runLater(() -> {
+                    waitingForAccounts = false;
+                    handleCreateAccount();
+                }));
+            }
+            return;
+        }
+
+        // Check for duplicate username
         if (fileManager.userExists(username)) {
             showError("Username already exists");
             return;
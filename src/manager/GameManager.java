@@ -1,5 +1,6 @@
 package manager;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
@@ -25,17 +26,44 @@ public class GameManager extends Application {
 
     @Override
     public void start(Stage stage) {
+        long startNanos = System.nanoTime();
         primaryStage = stage;
         primaryStage.setTitle("CS 151 Game Manager");
         primaryStage.setResizable(false);
         
-        // Initialize file manager for data persistence
-        fileManager = new FileManager();
+        // Accounts and scores load in the background so the window shows right away
+        fileManager = FileManager.openInBackground();
+        fileManager.whenUsersLoaded().thenRun(() -> reportStartup("Accounts loaded", startNanos));
+        fileManager.whenScoresLoaded().thenRun(() -> reportStartup("High scores loaded", startNanos));
         
         // Start with login screen
         showLoginScreen();
         
         primaryStage.show();
+
+        // The first animation pulse is the one that renders the first frame
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                reportStartup("Time to first frame", startNanos);
+            }
+        }.start();
+    }
+
+    private static void reportStartup(String milestone, long startNanos) {
+        System.out.printf("%s: %d ms%n", milestone, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Flushes pending saves and compacts the high score journal before the
+     * application exits.
+     */
+    @Override
+    public void stop() {
+        if (fileManager != null) {
+            fileManager.shutdown();
+        }
     }
 
     /**
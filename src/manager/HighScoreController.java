@@ -1,5 +1,6 @@
 package manager;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -9,17 +10,43 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import storage.FileManager;
 import storage.HighScore;
+import storage.LeaderboardWindow;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * HighScoreController handles the high scores display screen.
- * Shows top 5 scores for both Blackjack and Snake games.
+ * Shows the Blackjack and Snake leaderboards for today, this week or all
+ * time, a page at a time, along with the current user's all-time rank.
  */
 public class HighScoreController {
     
+    private static final int PAGE_SIZE = 5;
+
     private VBox view;
-    private VBox blackjackScoresBox;
-    private VBox snakeScoresBox;
+    private ScoreSection blackjackSection;
+    private ScoreSection snakeSection;
+    private ComboBox<LeaderboardWindow> windowSelector;
+    private boolean waitingForScores;
+
+    /**
+     * The controls of one game's leaderboard and the page it is showing.
+     */
+    private static class ScoreSection {
+        final String gameType;
+        final VBox box = new VBox(10);
+        final VBox scoresList = new VBox(8);
+        final Label pageLabel = new Label();
+        final Label rankLabel = new Label();
+        final Button previousButton = new Button("<");
+        final Button nextButton = new Button(">");
+        final Button findMeButton = new Button("Find me");
+        int offset;
+
+        ScoreSection(String gameType) {
+            this.gameType = gameType;
+        }
+    }
 
   
     public HighScoreController() {
@@ -41,25 +68,42 @@ public class HighScoreController {
         titleLabel.setFont(Font.font("Arial", FontWeight.BOLD, 36));
         titleLabel.setStyle("-fx-text-fill: #ECF0F1;");
 
+        // Time window selector
+        windowSelector = new ComboBox<>();
+        windowSelector.getItems().addAll(LeaderboardWindow.values());
+        windowSelector.setValue(LeaderboardWindow.ALL_TIME);
+        windowSelector.setOnAction(e -> {
+            blackjackSection.offset = 0;
+            snakeSection.offset = 0;
+            loadScores();
+        });
+
         // Container for both score lists
         HBox scoresContainer = new HBox(50);
         scoresContainer.setAlignment(Pos.CENTER);
 
         // Blackjack scores section
-        VBox blackjackSection = createScoreSection("Blackjack");
-        blackjackScoresBox = (VBox) blackjackSection.getChildren().get(1);
+        blackjackSection = createScoreSection("Blackjack", "blackjack");
 
         // Snake scores section
-        VBox snakeSection = createScoreSection("Snake");
-        snakeScoresBox = (VBox) snakeSection.getChildren().get(1);
+        snakeSection = createScoreSection("Snake", "snake");
 
-        scoresContainer.getChildren().addAll(blackjackSection, snakeSection);
+        scoresContainer.getChildren().addAll(blackjackSection.box, snakeSection.box);
 
         // Refresh button
         Button refreshButton = new Button("Refresh Scores");
         refreshButton.setStyle("-fx-background-color: #3498DB; -fx-text-fill: white; " +
                               "-fx-font-size: 14px; -fx-padding: 10 20;");
-        refreshButton.setOnAction(e -> loadScores());
+        refreshButton.setOnAction(e -> {
+            FileManager fileManager = GameManager.getFileManager();
+            if (fileManager.whenScoresLoaded().isDone()) {
+                // Force a re-read from file on the loader thread, then redraw
+                fileManager.loadHighScoresAsync().thenRun(() -> Platform.runLater(this::showScores));
+            } else {
+                // While the background load runs, loadScores() shows the scores once it is done
+                loadScores();
+            }
+        });
 
         // Back button
         Button backButton = new Button("Back to Menu");
@@ -71,32 +115,50 @@ public class HighScoreController {
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.getChildren().addAll(refreshButton, backButton);
 
-        view.getChildren().addAll(titleLabel, scoresContainer, buttonBox);
+        view.getChildren().addAll(titleLabel, windowSelector, scoresContainer, buttonBox);
     }
 
     /**
      * Creates a score section for a specific game.
      * @param gameName the name of the game
-     * @return VBox containing the score section
+     * @param gameType the game type the scores are stored under
+     * @return the section and its controls
      */
-    private VBox createScoreSection(String gameName) {
-        VBox section = new VBox(10);
-        section.setAlignment(Pos.TOP_CENTER);
-        section.setPadding(new Insets(20));
-        section.setStyle("-fx-background-color: #2C3E50; -fx-background-radius: 10;");
-        section.setPrefWidth(300);
+    private ScoreSection createScoreSection(String gameName, String gameType) {
+        ScoreSection section = new ScoreSection(gameType);
+        VBox box = section.box;
+        box.setAlignment(Pos.TOP_CENTER);
+        box.setPadding(new Insets(20));
+        box.setStyle("-fx-background-color: #2C3E50; -fx-background-radius: 10;");
+        box.setPrefWidth(300);
 
         // Section title
-        Label sectionTitle = new Label(gameName + " Top 5");
+        Label sectionTitle = new Label(gameName);
         sectionTitle.setFont(Font.font("Arial", FontWeight.BOLD, 24));
         sectionTitle.setStyle("-fx-text-fill: #F39C12;");
 
         // Scores list
-        VBox scoresList = new VBox(8);
-        scoresList.setAlignment(Pos.CENTER_LEFT);
-        scoresList.setPadding(new Insets(10));
+        section.scoresList.setAlignment(Pos.CENTER_LEFT);
+        section.scoresList.setPadding(new Insets(10));
+
+        // Page navigation
+        String navStyle = "-fx-background-color: #3498DB; -fx-text-fill: white; -fx-font-size: 12px;";
+        section.previousButton.setStyle(navStyle);
+        section.nextButton.setStyle(navStyle);
+        section.previousButton.setOnAction(e -> showPage(section, section.offset - PAGE_SIZE));
+        section.nextButton.setOnAction(e -> showPage(section, section.offset + PAGE_SIZE));
+        section.findMeButton.setStyle(navStyle);
+        section.findMeButton.setOnAction(e -> showUserPage(section));
+        section.pageLabel.setStyle("-fx-text-fill: #BDC3C7;");
+        HBox navBox = new HBox(10);
+        navBox.setAlignment(Pos.CENTER);
+        navBox.getChildren().addAll(section.previousButton, section.pageLabel, section.nextButton,
+                section.findMeButton);
+
+        // The current user's rank
+        section.rankLabel.setStyle("-fx-text-fill: #ECF0F1;");
 
-        section.getChildren().addAll(sectionTitle, scoresList);
+        box.getChildren().addAll(sectionTitle, section.scoresList, navBox, section.rankLabel);
         return section;
     }
 
@@ -105,23 +167,80 @@ public class HighScoreController {
      */
     private void loadScores() {
         FileManager fileManager = GameManager.getFileManager();
-        fileManager.loadHighScores(); // Refresh from file
+        if (!fileManager.whenScoresLoaded().isDone()) {
+            // Show what is there now and fill in once the background load
+            // finishes, queueing one reload however often this is called
+            if (!waitingForScores) {
+                waitingForScores = true;
+                fileManager.whenScoresLoaded().thenRun(() -> Platform.runLater(() -> {
+                    waitingForScores = false;
+                    loadScores();
+                }));
+            }
+        }
+        // Only re-reads if another instance changed the file, and off the JavaFX thread
+        CompletableFuture<Void> refresh = fileManager.refreshHighScoresIfStale();
+        if (!refresh.isDone()) {
+            refresh.thenRun(() -> Platform.runLater(this::showScores));
+        }
+        showScores();
+    }
+
+    /**
+     * Shows the current page of both leaderboards from the scores in memory.
+     */
+    private void showScores() {
+        showPage(blackjackSection, blackjackSection.offset);
+        showPage(snakeSection, snakeSection.offset);
+    }
+
+    /**
+     * Shows one page of a game's leaderboard and the current user's rank.
+     * @param section the game's section
+     * @param offset the 0-based rank of the first score to show
+     */
+    private void showPage(ScoreSection section, int offset) {
+        FileManager fileManager = GameManager.getFileManager();
+        LeaderboardWindow window = windowSelector.getValue();
+        int total = fileManager.getScoreCount(section.gameType, window);
+        int lastPage = Math.max(0, (total - 1) / PAGE_SIZE * PAGE_SIZE);
+        section.offset = Math.max(0, Math.min(offset, lastPage));
+
+        List<HighScore> scores = fileManager.getScorePage(section.gameType, window, section.offset, PAGE_SIZE);
+        displayScores(section.scoresList, scores, section.offset + 1);
 
-        // Load Blackjack scores
-        List<HighScore> blackjackScores = fileManager.getTop5Scores("blackjack");
-        displayScores(blackjackScoresBox, blackjackScores);
+        section.pageLabel.setText(total == 0 ? "" : String.format("%d-%d of %d",
+                section.offset + 1, section.offset + scores.size(), total));
+        section.previousButton.setDisable(section.offset == 0);
+        section.nextButton.setDisable(section.offset >= lastPage);
+
+        // Ranks come from the all-time index
+        String currentUser = GameManager.getCurrentUser();
+        boolean allTime = window == LeaderboardWindow.ALL_TIME;
+        int rank = currentUser == null || !allTime ? 0 : fileManager.getRank(currentUser, section.gameType);
+        section.rankLabel.setText(rank == 0 ? "" : "Your rank: #" + rank);
+        section.findMeButton.setDisable(rank == 0);
+    }
 
-        // Load Snake scores
-        List<HighScore> snakeScores = fileManager.getTop5Scores("snake");
-        displayScores(snakeScoresBox, snakeScores);
+    /**
+     * Jumps to the page holding the current user's best score.
+     * @param section the game's section
+     */
+    private void showUserPage(ScoreSection section) {
+        String currentUser = GameManager.getCurrentUser();
+        int rank = currentUser == null ? 0 : GameManager.getFileManager().getRank(currentUser, section.gameType);
+        if (rank > 0) {
+            showPage(section, (rank - 1) / PAGE_SIZE * PAGE_SIZE);
+        }
     }
 
     /**
      * Displays a list of scores in a VBox.
      * @param container the container to display scores in
      * @param scores the list of scores
+     * @param firstRank the rank of the first score in the list
      */
-    private void displayScores(VBox container, List<HighScore> scores) {
+    private void displayScores(VBox container, List<HighScore> scores, int firstRank) {
         container.getChildren().clear();
 
         if (scores.isEmpty()) {
@@ -131,7 +250,7 @@ public class HighScoreController {
             return;
         }
 
-        int rank = 1;
+        int rank = firstRank;
         for (HighScore score : scores) {
             Label scoreLabel = new Label(score.toDisplayString(rank));
             scoreLabel.setFont(Font.font("Arial", 16));
@@ -1,5 +1,6 @@
 package manager;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -19,6 +20,7 @@ public class LoginController {
     private TextField usernameField;
     private PasswordField passwordField;
     private Label messageLabel;
+    private boolean waitingForAccounts;
 
     /**
      * Constructor creates the login UI.
@@ -115,10 +117,25 @@ public class LoginController {
             return;
         }
 
-        // Validate credentials
+        // Accounts may still be loading in the background, retry once they are in
         FileManager fileManager = GameManager.getFileManager();
+        if (!fileManager.whenUsersLoaded().isDone()) {
+            messageLabel.setText("Loading accounts...");
+            messageLabel.setStyle("-fx-text-fill: #BDC3C7;");
+            if (!waitingForAccounts) {
+                waitingForAccounts = true;
+                fileManager.whenUsersLoaded().thenRun(() -> Platform.runLater(() -> {
+                    waitingForAccounts = false;
+                    handleLogin();
+                }));
+            }
+            return;
+        }
+
+        // Validate credentials
         if (fileManager.validateLogin(username, password)) {
-            GameManager.setCurrentUser(username);
+            // Use the stored spelling so scores line up regardless of typed case
+            GameManager.setCurrentUser(fileManager.getUser(username).getUsername());
             GameManager.showMainMenu();
         } else {
             showError("Invalid username or password");
@@ -1,5 +1,6 @@
 package manager;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -11,6 +12,7 @@ import javafx.scene.text.FontWeight;
 import storage.FileManager;
 import storage.HighScore;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * MainMenuController handles the main menu screen UI and logic.
@@ -21,6 +23,7 @@ public class MainMenuController {
     private VBox view;
     private VBox blackjackScoresBox;
     private VBox snakeScoresBox;
+    private boolean waitingForScores;
 
     /**
      * Constructor creates the main menu UI.
@@ -166,7 +169,33 @@ public class MainMenuController {
      */
     private void loadScores() {
         FileManager fileManager = GameManager.getFileManager();
-        fileManager.loadHighScores();
+        if (!fileManager.whenScoresLoaded().isDone()) {
+            // Fill the leaderboards in once the background load finishes
+            showLoading(blackjackScoresBox);
+            showLoading(snakeScoresBox);
+            // Queue one reload however often this is called
+            if (!waitingForScores) {
+                waitingForScores = true;
+                fileManager.whenScoresLoaded().thenRun(() -> Platform.runLater(() -> {
+                    waitingForScores = false;
+                    loadScores();
+                }));
+            }
+            return;
+        }
+        // Only re-reads if another instance changed the file, and off the JavaFX thread
+        CompletableFuture<Void> refresh = fileManager.refreshHighScoresIfStale();
+        if (!refresh.isDone()) {
+            refresh.thenRun(() -> Platform.runLater(this::showScores));
+        }
+        showScores();
+    }
+
+    /**
+     * Shows the top scores from the scores in memory.
+     */
+    private void showScores() {
+        FileManager fileManager = GameManager.getFileManager();
 
         // Load Blackjack scores
         List<HighScore> blackjackScores = fileManager.getTop5Scores("blackjack");
@@ -177,6 +206,15 @@ public class MainMenuController {
         displayScores(snakeScoresBox, snakeScores);
     }
 
+    private void showLoading(VBox container) {
+        if (container == null) return;
+
+        container.getChildren().clear();
+        Label loading = new Label("Loading scores...");
+        loading.setStyle("-fx-text-fill: #BDC3C7; -fx-font-style: italic;");
+        container.getChildren().add(loading);
+    }
+
     /**
      * Displays a list of scores in a VBox.
      */
@@ -0,0 +1,360 @@
+package storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * BinaryScoreFile stores high scores as fixed-width binary records read
+ * through a memory-mapped buffer, so the OS page cache serves lookups and
+ * loading needs no text parsing.
+ *
+ * Layout: an 8 byte header (magic, record size) followed by 20 byte records
+ * of user code (int), score (int), game code (int) and timestamp in UTC
+ * epoch seconds (long). User and game codes index a NameDictionary kept in
+ * a ".names" sidecar file. Appends and compactions lock a ".lock" sidecar,
+ * as ScoreJournal does.
+ */
+public class BinaryScoreFile implements ScoreStore {
+
+    public static final int RECORD_SIZE = 20;
+    private static final int MAGIC = 0x48534231; // "HSB1"
+    private static final int HEADER_SIZE = 8;
+
+    private final File file;
+    private final File lockFile;
+    private final NameDictionary names;
+    private int appendedSinceCompaction;
+
+    private MappedByteBuffer mapped;
+    private int mappedCount;
+    private Object mappedKey;
+
+    // Read position (in records) and change tracking, as in ScoreJournal
+    private int readCount = -1;
+    private Object fileKey;
+    private long knownSize = -1;
+    private boolean foreignWrite;
+    private final List<int[]> ownRanges = new ArrayList<>();
+    private Object ownKey;
+
+    public BinaryScoreFile(String fileName) {
+        this.file = new File(fileName);
+        this.lockFile = new File(fileName + ".lock");
+        this.names = new NameDictionary(new File(fileName + ".names"));
+        if (!file.exists() || file.length() == 0) {
+            writeFile(file, List.of());
+        }
+    }
+
+    /**
+     * @return the number of complete records in the file
+     */
+    public synchronized int size() {
+        map();
+        return mappedCount;
+    }
+
+    public synchronized int userCode(int index) {
+        map();
+        return mapped.getInt(offsetOf(index));
+    }
+
+    public synchronized int score(int index) {
+        map();
+        return mapped.getInt(offsetOf(index) + 4);
+    }
+
+    public synchronized int gameCode(int index) {
+        map();
+        return mapped.getInt(offsetOf(index) + 8);
+    }
+
+    public synchronized long epochSecond(int index) {
+        map();
+        return mapped.getLong(offsetOf(index) + 12);
+    }
+
+    /**
+     * Builds a HighScore for one record.
+     * @param index the record number
+     * @return the score
+     */
+    public synchronized HighScore get(int index) {
+        map();
+        int offset = offsetOf(index);
+        return new HighScore(
+                names.nameOf(mapped.getInt(offset)),
+                mapped.getInt(offset + 4),
+                names.nameOf(mapped.getInt(offset + 8)),
+                LocalDateTime.ofEpochSecond(mapped.getLong(offset + 12), 0, ZoneOffset.UTC));
+    }
+
+    public NameDictionary getNames() {
+        return names;
+    }
+
+    @Override
+    public synchronized List<HighScore> replay() {
+        ownRanges.clear();
+        map();
+        List<HighScore> scores = new ArrayList<>(mappedCount);
+        for (int i = 0; i < mappedCount; i++) {
+            scores.add(get(i));
+        }
+        readCount = mappedCount;
+        knownSize = file.length();
+        fileKey = ScoreJournal.fileKeyOf(file);
+        ownKey = fileKey;
+        foreignWrite = false;
+        return scores;
+    }
+
+    @Override
+    public synchronized List<HighScore> readNew() {
+        if (readCount < 0 || !Objects.equals(fileKey, ScoreJournal.fileKeyOf(file))) {
+            return null;
+        }
+        map();
+        if (mappedCount < readCount) {
+            return null;
+        }
+        List<HighScore> scores = new ArrayList<>();
+        for (int i = readCount; i < mappedCount; i++) {
+            if (!isOwnRecord(i)) {
+                scores.add(get(i));
+            }
+        }
+        readCount = mappedCount;
+        knownSize = file.length();
+        foreignWrite = false;
+        ownRanges.removeIf(range -> range[1] <= readCount);
+        return scores;
+    }
+
+    @Override
+    public synchronized void append(List<HighScore> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        // Resolve codes first so the dictionary is on disk before any record uses it
+        ByteBuffer records = encode(scores);
+        try {
+            FileLock lock = ScoreJournal.lock(lockFile);
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long size = channel.size();
+                if (size != knownSize) {
+                    foreignWrite = true;
+                }
+                Object key = ScoreJournal.fileKeyOf(file);
+                if (!Objects.equals(ownKey, key)) {
+                    // Our earlier ranges were positions in a file since replaced
+                    ownRanges.clear();
+                    ownKey = key;
+                }
+                int start = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+                while (records.hasRemaining()) {
+                    channel.write(records);
+                }
+                int end = start + scores.size();
+                if (start == readCount && Objects.equals(fileKey, key)) {
+                    readCount = end;
+                } else {
+                    ownRanges.add(new int[] {start, end});
+                }
+                knownSize = channel.size();
+                appendedSinceCompaction += scores.size();
+            } finally {
+                lock.channel().close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending binary high scores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the file so it holds the given scores, followed by any records
+     * other instances wrote that we have not read yet; those are left past
+     * our read position, so the next readNew() returns them.
+     * @param scores the scores to keep, in the order they should be written
+     */
+    @Override
+    public synchronized void compact(List<HighScore> scores) {
+        rewrite(scores, true);
+    }
+
+    private void rewrite(List<HighScore> scores, boolean keepForeign) {
+        Path temp = null;
+        try {
+            FileLock lock = ScoreJournal.lock(lockFile);
+            try {
+                List<HighScore> all = new ArrayList<>(scores);
+                if (keepForeign) {
+                    all.addAll(readForeign(scores));
+                }
+                // A temp name of our own, so instances never write the same one
+                temp = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(),
+                        file.getName() + ".", ".tmp");
+                if (!writeFile(temp.toFile(), all)) {
+                    return;
+                }
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                temp = null;
+                appendedSinceCompaction = 0;
+                readCount = scores.size();
+                knownSize = file.length();
+                fileKey = ScoreJournal.fileKeyOf(file);
+                foreignWrite = all.size() > scores.size();
+                ownRanges.clear();
+                ownKey = fileKey;
+            } finally {
+                lock.channel().close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error compacting binary high scores: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Reads the records other instances wrote that we have not read, as
+     * ScoreJournal does, skipping our own appends while the file they went
+     * to is still in place. The caller holds the lock.
+     */
+    private List<HighScore> readForeign(List<HighScore> kept) {
+        Object key = ScoreJournal.fileKeyOf(file);
+        map();
+        boolean sameFile = readCount >= 0 && Objects.equals(fileKey, key) && mappedCount >= readCount;
+        if (!sameFile && !Objects.equals(ownKey, key)) {
+            // Our own ranges were positions in the old file
+            ownRanges.clear();
+        }
+        List<HighScore> foreign = new ArrayList<>();
+        for (int i = sameFile ? readCount : 0; i < mappedCount; i++) {
+            if (!isOwnRecord(i)) {
+                foreign.add(get(i));
+            }
+        }
+        return sameFile ? foreign : ScoreJournal.withoutKept(foreign, kept);
+    }
+
+    @Override
+    public synchronized boolean needsCompaction() {
+        return appendedSinceCompaction > 0;
+    }
+
+    @Override
+    public synchronized boolean hasForeignChanges() {
+        return foreignWrite || file.length() != knownSize
+                || !Objects.equals(fileKey, ScoreJournal.fileKeyOf(file));
+    }
+
+    @Override
+    public String getFileName() {
+        return file.getName();
+    }
+
+    /**
+     * Replaces the contents of this file with the records of a text score file.
+     * @param textFile a file in HighScore.toFileFormat lines
+     */
+    public synchronized void importText(File textFile) {
+        rewrite(new ScoreJournal(textFile.getPath()).replay(), false);
+    }
+
+    /**
+     * Writes every record to a text score file in HighScore.toFileFormat lines.
+     * @param textFile the file to create or overwrite
+     */
+    public void exportText(File textFile) {
+        // Start from an empty file, so nothing already in it is kept
+        textFile.delete();
+        new ScoreJournal(textFile.getPath()).compact(replay());
+    }
+
+    private static int offsetOf(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private boolean isOwnRecord(int index) {
+        for (int[] range : ownRanges) {
+            if (index >= range[0] && index < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ByteBuffer encode(List<HighScore> scores) {
+        ByteBuffer buffer = ByteBuffer.allocate(scores.size() * RECORD_SIZE);
+        for (HighScore score : scores) {
+            buffer.putInt(names.codeOf(score.getUsername()));
+            buffer.putInt(score.getScore());
+            buffer.putInt(names.codeOf(score.getGameType()));
+            buffer.putLong(score.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private boolean writeFile(File target, List<HighScore> scores) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(RECORD_SIZE).flip();
+        ByteBuffer records = encode(scores);
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, records};
+            // An empty list still needs its header
+            while (header.hasRemaining() || records.hasRemaining()) {
+                channel.write(buffers);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing binary high scores: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Maps the file again if it grew or was replaced since the last mapping.
+     */
+    private void map() {
+        long size = file.length();
+        int count = (int) Math.max(0, (size - HEADER_SIZE) / RECORD_SIZE);
+        Object key = ScoreJournal.fileKeyOf(file);
+        if (mapped != null && count == mappedCount && Objects.equals(key, mappedKey)) {
+            return;
+        }
+        mapped = null;
+        mappedCount = 0;
+        if (size < HEADER_SIZE) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, offsetOf(count));
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_SIZE) {
+                throw new IOException("not a binary high score file: " + file);
+            }
+            mapped = buffer;
+            mappedCount = count;
+            mappedKey = key;
+        } catch (IOException e) {
+            System.err.println("Error mapping binary high scores: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConcurrentLeaderboard keeps the best scores for each game type in a
+ * ConcurrentSkipListMap ordered by score (highest first), then timestamp,
+ * then the order they were added. Adds and removes never take a lock, and
+ * readers iterate the top scores straight off the skip list without
+ * copying it.
+ *
+ * Each game keeps at most a fixed number of scores; when an add goes over,
+ * the lowest entry is dropped. A caller that keeps every score elsewhere
+ * refills the board after a remove by adding the next score in line.
+ */
+public class ConcurrentLeaderboard {
+
+    private final int capacity;
+    private final Map<String, Board> byGame = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    private static class Board {
+        final ConcurrentSkipListMap<Key, HighScore> entries = new ConcurrentSkipListMap<>();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static class Key implements Comparable<Key> {
+        final int score;
+        final LocalDateTime timestamp;
+        // Breaks ties in the order scores were added
+        final long sequence;
+
+        Key(int score, LocalDateTime timestamp, long sequence) {
+            this.score = score;
+            this.timestamp = timestamp;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int c = Integer.compare(other.score, score);
+            if (c == 0) {
+                c = timestamp.compareTo(other.timestamp);
+            }
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * @param capacity how many scores to keep per game type
+     */
+    public ConcurrentLeaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Normalizes a game type so lookups are case-insensitive.
+     * @param gameType the raw game type
+     * @return the leaderboard key for that game type
+     */
+    public static String key(String gameType) {
+        return gameType == null ? "" : gameType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a score in O(log K) without locking.
+     * @param score the score to add
+     */
+    public void add(HighScore score) {
+        Board board = byGame.computeIfAbsent(key(score.getGameType()), k -> new Board());
+        board.entries.put(new Key(score.getScore(), score.getTimestamp(), nextSequence.getAndIncrement()), score);
+        if (board.size.incrementAndGet() > capacity && board.entries.pollLastEntry() != null) {
+            board.size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes one score equal to the given one (same user, score and
+     * timestamp), if it is on the board.
+     * @param score the score to remove
+     * @return true if an entry was removed
+     */
+    public boolean remove(HighScore score) {
+        Board board = byGame.get(key(score.getGameType()));
+        if (board == null) {
+            return false;
+        }
+        Key from = new Key(score.getScore(), score.getTimestamp(), Long.MIN_VALUE);
+        Key to = new Key(score.getScore(), score.getTimestamp(), Long.MAX_VALUE);
+        for (Map.Entry<Key, HighScore> entry : board.entries.subMap(from, true, to, true).entrySet()) {
+            if (entry.getValue().getUsername().equals(score.getUsername())
+                    && board.entries.remove(entry.getKey()) != null) {
+                board.size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets a live, read-only view of a game's leaderboard, highest first.
+     * Iterating it walks the skip list directly; it is weakly consistent, so
+     * concurrent adds may or may not show up, but it never throws.
+     * @param gameType the type of game
+     * @return the scores in rank order
+     */
+    public Collection<HighScore> view(String gameType) {
+        Board board = byGame.get(key(gameType));
+        return board == null ? Collections.emptyList() : Collections.unmodifiableCollection(board.entries.values());
+    }
+
+    /**
+     * Copies the best scores for a game type, highest first.
+     * @param gameType the type of game
+     * @param limit the maximum number of scores to return (at most the capacity)
+     * @return the top scores
+     */
+    public List<HighScore> top(String gameType, int limit) {
+        List<HighScore> result = new ArrayList<>(Math.min(limit, capacity));
+        Iterator<HighScore> scores = view(gameType).iterator();
+        while (result.size() < limit && scores.hasNext()) {
+            result.add(scores.next());
+        }
+        return result;
+    }
+
+    /**
+     * @return how many scores a game type's board holds
+     */
+    public int size(String gameType) {
+        Board board = byGame.get(key(gameType));
+        return board == null ? 0 : board.size.get();
+    }
+
+    /**
+     * @return the best score for a game type, or null if there is none
+     */
+    public HighScore best(String gameType) {
+        Board board = byGame.get(key(gameType));
+        Map.Entry<Key, HighScore> first = board == null ? null : board.entries.firstEntry();
+        return first == null ? null : first.getValue();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,83 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataFileWatcher watches the data directory with a WatchService and calls
+ * a listener when one of the watched files is created or modified.
+ * Listeners run on the watcher's own background thread.
+ */
+public class DataFileWatcher implements Closeable {
+
+    private final WatchService watchService;
+    private final Map<String, Runnable> listeners;
+
+    /**
+     * @param directory the directory holding the data files
+     * @param listeners file name to the action to run when that file changes
+     * @throws IOException if the directory cannot be watched
+     */
+    public DataFileWatcher(Path directory, Map<String, Runnable> listeners) throws IOException {
+        this.listeners = new HashMap<>(listeners);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::runLoop, "storage-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void runLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events were dropped, let every listener re-check
+                    listeners.values().forEach(this::notifyListener);
+                    continue;
+                }
+                Runnable listener = listeners.get(event.context().toString());
+                if (listener != null) {
+                    notifyListener(listener);
+                }
+            }
+            if (!key.reset()) {
+                return;
+            }
+        }
+    }
+
+    private void notifyListener(Runnable listener) {
+        try {
+            listener.run();
+        } catch (RuntimeException e) {
+            System.err.println("Error handling file change: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Error closing file watcher: " + e.getMessage());
+        }
+    }
+}
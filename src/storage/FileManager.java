@@ -1,189 +1,1008 @@
 package storage;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import utils.EncryptionUtils;
+import utils.PasswordHasher;
 
+/**
+ * FileManager owns the in-memory user and high score data and persists it
+ * through a UserStore and a ScoreStore, text files by default (see
+ * StorageBackend). Writes are handed to a WriteBehindPersister so callers
+ * on the JavaFX thread never wait on disk I/O.
+ *
+ * FileManager is safe to use from many threads and is built for reads:
+ * top-N leaderboards live in a ConcurrentLeaderboard and user lookups go
+ * through a concurrent map, so reading either never takes a lock. Writes,
+ * adding a score included, and everything else share a read/write lock,
+ * and reloads build the new state on the side and swap it in, so readers
+ * never see a half-loaded list.
+ */
 public class FileManager {
-    
-    private static final String ACCOUNTS_FILE = "user_accounts.txt";
-    private static final String HIGH_SCORES_FILE = "high_scores.txt";
-    
-    private List<User> users;
-    private List<HighScore> highScores;
+
+    // Persister keys, so queued writes to the same store coalesce
+    private static final String USERS_KEY = "users";
+    private static final String SCORES_KEY = "scores";
+    private static final int TOP_SCORES_PER_GAME = 100;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 500;
+    private static final int DEFAULT_KEEP_PER_USER = 10;
+    private static final int DEFAULT_COMPACT_AFTER = 1000;
+
+    // Guards users and scores; readers share it, changes and swaps take it exclusively
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final Lock readLock = stateLock.readLock();
+    private final Lock writeLock = stateLock.writeLock();
+    // Held while a store is reloaded or flushed, so a reload knows exactly
+    // which queued writes are not on disk yet
+    private final Lock usersLoadLock = new ReentrantLock();
+    private final Lock scoresLoadLock = new ReentrantLock();
+
+    private List<User> users = new ArrayList<>();
+    private volatile Map<String, User> usersByName = new ConcurrentHashMap<>();
+    private volatile ScoreState scores;
+    private final UserStore userStore;
+    private final ScoreStore scoreStore;
+    private final int keepPerUser;
+    private final int compactAfter;
+    private final Clock clock;
+
+    // Write-behind state, drained by the persister thread
+    private final WriteBehindPersister persister;
+    // Runs the background load and later reloads, off the JavaFX thread
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "storage-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<User> pendingUsers = new ConcurrentLinkedQueue<>();
+    private final Queue<HighScore> pendingScores = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean usersRewritePending = new AtomicBoolean();
+    private final AtomicBoolean scoresRewritePending = new AtomicBoolean();
+
+    // Change detection for files shared with other running instances
+    private DataFileWatcher watcher;
+    private volatile boolean usersStale;
+    private volatile boolean scoresStale;
+
+    // Completed once the first load of each store has finished
+    private final CompletableFuture<Void> usersLoaded = new CompletableFuture<>();
+    private final CompletableFuture<Void> scoresLoaded = new CompletableFuture<>();
+
+    /**
+     * The in-memory scores: the column table, the top-N leaderboard, the
+     * daily and weekly leaderboards, the rank index and the retention policy
+     * that trims them. Replaced as a whole on a full reload.
+     *
+     * The daily and weekly boards see every score. A score the retention
+     * policy drops from the all-time boards is held in the columns, and so
+     * in the score file, until its week is over; only then is it dropped
+     * and rolled up.
+     */
+    private static class ScoreState {
+        final ScoreColumns columns = new ScoreColumns();
+        final ConcurrentLeaderboard top = new ConcurrentLeaderboard(TOP_SCORES_PER_GAME);
+        final RankIndex ranks = new RankIndex(columns);
+        final WindowedLeaderboard windows;
+        final ScoreCompactor compactor;
+        // Rows out of the best N that the weekly board still needs
+        private BitSet held = new BitSet();
+        private LocalDate heldWeek;
+
+        ScoreState(int keepPerUser, File rollupFile, Clock clock) {
+            windows = new WindowedLeaderboard(TOP_SCORES_PER_GAME, clock);
+            compactor = new ScoreCompactor(columns, keepPerUser, rollupFile);
+        }
+
+        /**
+         * Adds a score, applying the retention policy.
+         */
+        void retain(HighScore score) {
+            releaseExpired();
+            int row = columns.add(score);
+            windows.add(score);
+            int dropped = compactor.offer(row);
+            if (dropped != row) {
+                top.add(score);
+                ranks.add(row);
+            }
+            if (dropped < 0) {
+                return;
+            }
+            HighScore evicted = dropped == row ? score : columns.get(dropped);
+            if (dropped != row) {
+                ranks.remove(dropped);
+                if (top.remove(evicted)) {
+                    refill(evicted.getGameType());
+                }
+            }
+            if (windows.isInCurrentWeek(evicted.getTimestamp())) {
+                held.set(dropped);
+            } else {
+                compactor.drop(dropped);
+            }
+        }
+
+        /**
+         * Moves the best score below a game's board onto it, so the board
+         * stays the top of the rank index after a remove. Ties on the board
+         * break in add order and in the index in row order, which agree, so
+         * the score is never one already on the board.
+         */
+        private void refill(String gameType) {
+            List<HighScore> next = ranks.page(gameType, top.size(gameType), 1);
+            if (!next.isEmpty()) {
+                top.add(next.get(0));
+            }
+        }
+
+        /**
+         * Drops the held rows whose week has ended. Only looks at them once
+         * per week.
+         */
+        void releaseExpired() {
+            LocalDate week = windows.currentWeekStart();
+            if (week.equals(heldWeek)) {
+                return;
+            }
+            heldWeek = week;
+            for (int row = held.nextSetBit(0); row >= 0; row = held.nextSetBit(row + 1)) {
+                if (!windows.isInCurrentWeek(columns.get(row).getTimestamp())) {
+                    held.clear(row);
+                    compactor.drop(row);
+                }
+            }
+        }
+
+        /**
+         * Squeezes dropped rows out of the columns and renumbers the rows
+         * the compactor, the rank index and the held set refer to.
+         */
+        void compact() {
+            releaseExpired();
+            int[] mapping = columns.compact();
+            compactor.remap(mapping);
+            ranks.remap(mapping);
+            BitSet remapped = new BitSet();
+            for (int row = held.nextSetBit(0); row >= 0; row = held.nextSetBit(row + 1)) {
+                remapped.set(mapping[row]);
+            }
+            held = remapped;
+        }
+    }
 
     public FileManager() {
-        this.users = new ArrayList<>();
-        this.highScores = new ArrayList<>();
-        initializeFiles();
-        loadAllData();
+        this(Long.getLong("storage.flushIntervalMs", DEFAULT_FLUSH_INTERVAL_MS));
+    }
+
+    /**
+     * Opens the backend chosen by -Dstorage.backend.
+     * @param flushIntervalMillis how often pending writes are flushed to disk
+     */
+    public FileManager(long flushIntervalMillis) {
+        this(StorageBackend.fromSystemProperties(), flushIntervalMillis);
+    }
+
+    public FileManager(StorageBackend backend, long flushIntervalMillis) {
+        this(backend.openUserStore(), backend.openScoreStore(), flushIntervalMillis);
+    }
+
+    /**
+     * @param userStore where accounts are kept
+     * @param scoreStore where high scores are kept
+     * @param flushIntervalMillis how often pending writes are flushed to disk
+     */
+    public FileManager(UserStore userStore, ScoreStore scoreStore, long flushIntervalMillis) {
+        this(userStore, scoreStore, flushIntervalMillis, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param userStore where accounts are kept
+     * @param scoreStore where high scores are kept
+     * @param flushIntervalMillis how often pending writes are flushed to disk
+     * @param clock the clock that stamps new scores and decides the current
+     *              day and week of the windowed leaderboards
+     */
+    public FileManager(UserStore userStore, ScoreStore scoreStore, long flushIntervalMillis, Clock clock) {
+        this(userStore, scoreStore, flushIntervalMillis, clock, true);
+    }
+
+    private FileManager(UserStore userStore, ScoreStore scoreStore, long flushIntervalMillis, Clock clock,
+            boolean loadNow) {
+        this.userStore = userStore;
+        this.scoreStore = scoreStore;
+        this.clock = clock;
+        this.keepPerUser = Integer.getInteger("storage.retention.keepPerUser", DEFAULT_KEEP_PER_USER);
+        this.compactAfter = Integer.getInteger("storage.retention.compactAfter", DEFAULT_COMPACT_AFTER);
+        this.scores = newScoreState();
+        this.persister = new WriteBehindPersister(flushIntervalMillis);
+        if (loadNow) {
+            loadAllData();
+            usersLoaded.complete(null);
+            scoresLoaded.complete(null);
+            startWatching();
+        }
+    }
+
+    /**
+     * Opens the backend chosen by -Dstorage.backend and returns at once,
+     * loading the data on a background thread: accounts first, then scores.
+     * Account lookups wait for the accounts (see whenUsersLoaded); score
+     * queries return what is loaded so far until whenScoresLoaded completes.
+     * @return a FileManager that is still loading
+     */
+    public static FileManager openInBackground() {
+        StorageBackend backend = StorageBackend.fromSystemProperties();
+        FileManager fileManager = new FileManager(backend.openUserStore(), backend.openScoreStore(),
+                Long.getLong("storage.flushIntervalMs", DEFAULT_FLUSH_INTERVAL_MS), Clock.systemDefaultZone(), false);
+        fileManager.loadInBackground();
+        return fileManager;
+    }
+
+    private void loadInBackground() {
+        CompletableFuture.runAsync(this::loadUsers, loader)
+                .handle((result, error) -> finishLoad(usersLoaded, "users", error))
+                .thenRunAsync(this::loadAllHighScores, loader)
+                .handle((result, error) -> finishLoad(scoresLoaded, "high scores", error))
+                .thenRun(this::startWatching);
+    }
+
+    // Callers must not hang on a failed load, so a failure still completes the future
+    private static Void finishLoad(CompletableFuture<Void> loaded, String what, Throwable error) {
+        if (error != null) {
+            System.err.println("Error loading " + what + ": " + error.getMessage());
+        }
+        loaded.complete(null);
+        return null;
+    }
+
+    /**
+     * @return a future that completes once the accounts have been loaded
+     */
+    public CompletableFuture<Void> whenUsersLoaded() {
+        return usersLoaded;
+    }
+
+    /**
+     * @return a future that completes once the high scores have been loaded
+     */
+    public CompletableFuture<Void> whenScoresLoaded() {
+        return scoresLoaded;
     }
 
-    private void initializeFiles() {
+    private void awaitUsers() {
+        usersLoaded.join();
+    }
+
+    private ScoreState newScoreState() {
+        String scoreFile = scoreStore.getFileName();
+        return new ScoreState(keepPerUser, scoreFile == null ? null : new File(scoreFile + ".rollup"), clock);
+    }
+
+    /**
+     * Watches the data files so changes made by other instances are picked
+     * up in the background. Disable with -Dstorage.watchFiles=false.
+     */
+    private void startWatching() {
+        if (!Boolean.parseBoolean(System.getProperty("storage.watchFiles", "true"))) {
+            return;
+        }
+        Map<String, Runnable> listeners = new HashMap<>();
+        if (userStore.getFileName() != null) {
+            listeners.put(userStore.getFileName(), this::onAccountsFileChanged);
+        }
+        if (scoreStore.getFileName() != null) {
+            listeners.put(scoreStore.getFileName(), this::onScoresFileChanged);
+        }
+        if (listeners.isEmpty()) {
+            return;
+        }
         try {
-            File accountsFile = new File(ACCOUNTS_FILE);
-            if (!accountsFile.exists()) {
-                accountsFile.createNewFile();
-            }
-            
-            File scoresFile = new File(HIGH_SCORES_FILE);
-            if (!scoresFile.exists()) {
-                scoresFile.createNewFile();
-            }
-        } catch (IOException e) {
-            System.err.println("Error initializing files: " + e.getMessage());
+            Path directory = new File("").getAbsoluteFile().toPath();
+            watcher = new DataFileWatcher(directory, listeners);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("File watching unavailable, reloading on demand: " + e.getMessage());
+        }
+    }
+
+    private void onAccountsFileChanged() {
+        if (userStore.hasForeignChanges()) {
+            usersStale = true;
+            loadUsers();
         }
     }
 
+    private void onScoresFileChanged() {
+        if (scoreStore.hasForeignChanges()) {
+            scoresStale = true;
+            loadHighScores();
+        }
+    }
+
+    /**
+     * Reloads high scores only if they may be out of date: when no file
+     * watcher is running, or when the watcher saw another process change
+     * the file and the background reload has not finished yet. The reload
+     * runs on the loader thread, as loadHighScoresAsync does.
+     * @return a future that completes once the scores are up to date
+     */
+    public CompletableFuture<Void> refreshHighScoresIfStale() {
+        // The background load is still reading the file, nothing to refresh yet
+        if (!scoresLoaded.isDone() || (watcher != null && !scoresStale)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return loadHighScoresAsync();
+    }
+
+    /**
+     * Runs loadHighScores on the loader thread, so a caller on the JavaFX
+     * thread never waits for the flush and the read. Update the UI from the
+     * returned future.
+     * @return a future that completes once the reload is done
+     */
+    public CompletableFuture<Void> loadHighScoresAsync() {
+        return CompletableFuture.runAsync(this::loadHighScores, loader)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        System.err.println("Error reloading high scores: " + error.getMessage());
+                    }
+                    return null;
+                });
+    }
+
+    public boolean isWatchingFiles() {
+        return watcher != null;
+    }
+
+    /**
+     * Re-reads both data files in full.
+     */
     public void loadAllData() {
         loadUsers();
-        loadHighScores();
+        loadAllHighScores();
+    }
+
+    private void loadAllHighScores() {
+        persister.flush();
+        scoresLoadLock.lock();
+        try {
+            scoresStale = false;
+            readHighScores();
+        } finally {
+            scoresLoadLock.unlock();
+        }
     }
 
     public void loadUsers() {
-        users.clear();
-        boolean needsMigration = false;
-        try (BufferedReader reader = new BufferedReader(new FileReader(ACCOUNTS_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                User user = User.fromFileFormat(line);
-                if (user != null) {
-                    String password = user.getPassword();
-                    if (password != null && !password.isEmpty() && !EncryptionUtils.isEncrypted(password)) {
-                        String encryptedPassword = EncryptionUtils.encrypt(password);
-                        user.setPassword(encryptedPassword);
-                        needsMigration = true;
-                    }
-                    users.add(user);
-                }
+        // Flush first so everything queued so far is in the file we read
+        persister.flush();
+        usersLoadLock.lock();
+        try {
+            readUsers();
+        } finally {
+            usersLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the accounts into a new list and index, then swaps them in.
+     * The caller holds usersLoadLock.
+     */
+    private void readUsers() {
+        usersStale = false;
+        List<User> loaded = new ArrayList<>();
+        Map<String, User> loadedByName = new ConcurrentHashMap<>();
+        List<User> stored = userStore.replay();
+        // A store in the current format holds no plain-text passwords, so
+        // only older files need the per-record check, and one rewrite
+        // (which adds the format header) settles it for later loads
+        boolean needsMigration = !userStore.isMigrated();
+        for (User user : stored) {
+            String password = user.getPassword();
+            if (needsMigration && password != null && !password.isEmpty()
+                    && !PasswordHasher.isHashed(password) && !EncryptionUtils.isEncrypted(password)) {
+                user.setPassword(PasswordHasher.hash(password));
             }
-            if (needsMigration) {
-                saveUsers();
+            loaded.add(user);
+            indexUser(loadedByName, user);
+        }
+        writeLock.lock();
+        try {
+            // Accounts added since the flush before this reload are not in the file yet
+            for (User user : pendingUsers) {
+                loaded.add(user);
+                indexUser(loadedByName, user);
             }
-        } catch (IOException e) {
-            System.err.println("Error loading users: " + e.getMessage());
+            users = loaded;
+            usersByName = loadedByName;
+        } finally {
+            writeLock.unlock();
+        }
+        if (needsMigration) {
+            saveUsers();
         }
     }
 
+    /**
+     * Brings the in-memory scores up to date with the score file. Only
+     * records appended since the last load are parsed; the whole file is
+     * re-read only if it was truncated or replaced in the meantime.
+     */
     public void loadHighScores() {
-        highScores.clear();
-        try (BufferedReader reader = new BufferedReader(new FileReader(HIGH_SCORES_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                HighScore score = HighScore.fromFileFormat(line);
-                if (score != null) {
-                    highScores.add(score);
+        persister.flush();
+        scoresLoadLock.lock();
+        try {
+            scoresStale = false;
+            List<HighScore> appended = scoreStore.readNew();
+            if (appended == null) {
+                readHighScores();
+                return;
+            }
+            writeLock.lock();
+            try {
+                for (HighScore score : appended) {
+                    scores.retain(score);
                 }
+            } finally {
+                writeLock.unlock();
             }
-        } catch (IOException e) {
-            System.err.println("Error loading high scores: " + e.getMessage());
+            compactIfDropped(compactAfter);
+        } finally {
+            scoresLoadLock.unlock();
         }
-        sortHighScores();
     }
 
-    public void saveUsers() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(ACCOUNTS_FILE))) {
-            for (User user : users) {
-                writer.write(user.toFileFormat());
-                writer.newLine();
+    /**
+     * Replays the score file into a new ScoreState, then swaps it in.
+     * The replay and the merge of queued scores both run under
+     * scoresLoadLock, which flushHighScores also holds while it drains the
+     * queue, so every score is either in the file at the replay or still
+     * queued at the merge.
+     */
+    private void readHighScores() {
+        scoresLoadLock.lock();
+        try {
+            ScoreState loaded = newScoreState();
+            loaded.compactor.reset();
+            for (HighScore score : scoreStore.replay()) {
+                loaded.retain(score);
+            }
+            writeLock.lock();
+            try {
+                // Scores added since the flush before this reload are not in the file yet
+                for (HighScore score : pendingScores) {
+                    loaded.retain(score);
+                }
+                scores = loaded;
+            } finally {
+                writeLock.unlock();
             }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
+        } finally {
+            scoresLoadLock.unlock();
+        }
+        // Scores dropped while loading are still in the file, shrink it now
+        compactIfDropped(1);
+    }
+
+    /**
+     * Schedules a background rewrite once enough scores were dropped by the
+     * retention policy. Call without holding the write lock, since after
+     * shutdown the rewrite runs right away.
+     */
+    private void compactIfDropped(int threshold) {
+        int dropped;
+        readLock.lock();
+        try {
+            dropped = scores.compactor.getDroppedSinceCompaction();
+        } finally {
+            readLock.unlock();
+        }
+        if (dropped >= threshold) {
+            saveHighScores();
         }
     }
 
+    /**
+     * Schedules a full rewrite of the accounts file.
+     */
+    public void saveUsers() {
+        usersRewritePending.set(true);
+        persister.submit(USERS_KEY, this::flushUsers);
+    }
+
+    /**
+     * Schedules a full, sorted rewrite of the high score file.
+     */
     public void saveHighScores() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(HIGH_SCORES_FILE))) {
-            for (HighScore score : highScores) {
-                writer.write(score.toFileFormat());
-                writer.newLine();
+        scoresRewritePending.set(true);
+        persister.submit(SCORES_KEY, this::flushHighScores);
+    }
+
+    /**
+     * Rewrites the high score file in sorted order if scores were appended
+     * or dropped by the retention policy since the last compaction.
+     */
+    public void compactHighScores() {
+        persister.flush();
+        if (scoreStore.needsCompaction()) {
+            saveHighScores();
+        } else {
+            compactIfDropped(1);
+        }
+    }
+
+    /**
+     * Compacts the score file and flushes every pending write. Called when
+     * the application stops.
+     */
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        loader.shutdown();
+        compactHighScores();
+        persister.shutdown();
+    }
+
+    /**
+     * Writes pending account changes. A pending full rewrite already
+     * contains any queued appends, so those are dropped in that case.
+     */
+    private void flushUsers() {
+        usersLoadLock.lock();
+        try {
+            List<User> snapshot = null;
+            List<User> batch = new ArrayList<>();
+            // Adds take the write lock, so the snapshot and the drained queue agree
+            readLock.lock();
+            try {
+                if (usersRewritePending.getAndSet(false)) {
+                    snapshot = new ArrayList<>(users);
+                }
+                drain(pendingUsers, batch);
+            } finally {
+                readLock.unlock();
+            }
+            if (snapshot != null) {
+                userStore.writeAll(snapshot);
+            } else {
+                userStore.append(batch);
+            }
+        } finally {
+            usersLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Writes pending scores. A full rewrite first squeezes rows dropped by
+     * the retention policy out of memory, then writes the rollups and the
+     * kept scores.
+     */
+    private void flushHighScores() {
+        scoresLoadLock.lock();
+        try {
+            List<HighScore> snapshot = null;
+            List<String> rollups = null;
+            List<HighScore> batch = new ArrayList<>();
+            boolean rewrite = scoresRewritePending.getAndSet(false);
+            // Reloads also hold scoresLoadLock, so this state is not swapped under us
+            ScoreState state = scores;
+            writeLock.lock();
+            try {
+                if (rewrite) {
+                    state.compact();
+                }
+                // Downgrade so readers can go on while the snapshot is sorted
+                readLock.lock();
+            } finally {
+                writeLock.unlock();
+            }
+            try {
+                if (rewrite) {
+                    snapshot = sortedHighScores();
+                    rollups = state.compactor.rollupLines();
+                }
+                drain(pendingScores, batch);
+            } finally {
+                readLock.unlock();
+            }
+            if (snapshot != null) {
+                state.compactor.writeRollups(rollups);
+                scoreStore.compact(snapshot);
+            } else {
+                scoreStore.append(batch);
             }
-        } catch (IOException e) {
-            System.err.println("Error saving high scores: " + e.getMessage());
+        } finally {
+            scoresLoadLock.unlock();
         }
     }
 
+    private static <T> void drain(Queue<T> queue, List<T> into) {
+        T item;
+        while ((item = queue.poll()) != null) {
+            into.add(item);
+        }
+    }
+
+    /**
+     * @return the background persister, for its queue and flush metrics
+     */
+    public WriteBehindPersister getPersister() {
+        return persister;
+    }
+
     public boolean addUser(String username, String password) {
-        if (userExists(username)) {
-            return false;
+        awaitUsers();
+        // Hashing is deliberately slow, so it happens before taking the lock
+        String hashedPassword = PasswordHasher.hash(password);
+        writeLock.lock();
+        try {
+            if (userExists(username)) {
+                return false;
+            }
+            User newUser = new User(username, hashedPassword, true);
+            users.add(newUser);
+            indexUser(usersByName, newUser);
+            pendingUsers.add(newUser);
+        } finally {
+            writeLock.unlock();
         }
-        String encryptedPassword = EncryptionUtils.encrypt(password);
-        User newUser = new User(username, encryptedPassword, true);
-        users.add(newUser);
-        saveUsers();
+        persister.submit(USERS_KEY, this::flushUsers);
         return true;
     }
 
-    public boolean userExists(String username) {
-        for (User user : users) {
-            if (user.getUsername().equalsIgnoreCase(username)) {
-                return true;
+    /**
+     * Registers many accounts at once. Entries with a blank username, an
+     * empty password, a comma in the username, or a name that already
+     * exists (including earlier in the same batch) are skipped. All new
+     * accounts are appended to the accounts file in a single background write.
+     * @param credentials username/password pairs with plain-text passwords
+     * @return the number of accounts created
+     */
+    public int addUsers(Stream<Map.Entry<String, String>> credentials) {
+        awaitUsers();
+        // Hash the valid entries in parallel before taking the lock; names
+        // taken by then are skipped below
+        List<User> candidates = credentials
+                .filter(entry -> {
+                    String username = entry.getKey();
+                    String password = entry.getValue();
+                    return username != null && !username.trim().isEmpty() && !username.contains(",")
+                            && password != null && !password.isEmpty() && !userExists(username);
+                })
+                .parallel()
+                .map(entry -> new User(entry.getKey().trim(), PasswordHasher.hash(entry.getValue()), true))
+                .collect(Collectors.toList());
+        int added = 0;
+        writeLock.lock();
+        try {
+            for (User newUser : candidates) {
+                if (userExists(newUser.getUsername())) {
+                    continue;
+                }
+                users.add(newUser);
+                indexUser(usersByName, newUser);
+                pendingUsers.add(newUser);
+                added++;
             }
+        } finally {
+            writeLock.unlock();
+        }
+        if (added > 0) {
+            persister.submit(USERS_KEY, this::flushUsers);
         }
-        return false;
+        return added;
     }
 
+    /**
+     * Normalizes a username so every lookup is case-insensitive.
+     */
+    private static String userKey(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void indexUser(Map<String, User> index, User user) {
+        User existing = index.putIfAbsent(userKey(user.getUsername()), user);
+        if (existing != null && existing != user) {
+            System.err.println("Duplicate username ignored: " + user.getUsername());
+        }
+    }
+
+    public boolean userExists(String username) {
+        awaitUsers();
+        return usersByName.containsKey(userKey(username));
+    }
+
+    /**
+     * Checks a login. A legacy record, or one hashed below the current cost,
+     * is replaced with a new hash once the password is known to be right.
+     * @param username the username (case-insensitive)
+     * @param password the plain text password
+     * @return true if the user exists and the password matches
+     */
     public boolean validateLogin(String username, String password) {
-        for (User user : users) {
-            if (user.validateCredentials(username, password)) {
-                return true;
-            }
+        awaitUsers();
+        User user = usersByName.get(userKey(username));
+        if (user == null) {
+            return false;
+        }
+        String stored = user.getPassword();
+        if (!PasswordHasher.verify(password, stored)) {
+            return false;
         }
-        return false;
+        if (PasswordHasher.needsRehash(stored)) {
+            upgradePassword(user, stored, PasswordHasher.hash(password));
+        }
+        return true;
     }
 
-    public User getUser(String username) {
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return user;
+    /**
+     * Swaps in a new hash for a user, unless the record changed meanwhile
+     * (e.g. a concurrent login already upgraded it), and rewrites the
+     * accounts file in the background.
+     */
+    private void upgradePassword(User user, String expected, String hashedPassword) {
+        writeLock.lock();
+        try {
+            if (!expected.equals(user.getPassword())) {
+                return;
             }
+            user.setPassword(hashedPassword);
+        } finally {
+            writeLock.unlock();
         }
-        return null;
+        saveUsers();
     }
 
+    /**
+     * Looks up a user by name, ignoring case.
+     * @param username the username to find
+     * @return the stored user or null if none exists
+     */
+    public User getUser(String username) {
+        awaitUsers();
+        return usersByName.get(userKey(username));
+    }
+
+    /**
+     * Records a new score, stamped with the current time. The score columns,
+     * rank index and retention policy are updated together under the write
+     * lock, so the top-score board always matches them; readers of the board
+     * never wait on it.
+     * @param username the player's name
+     * @param score the points scored
+     * @param gameType the type of game
+     */
     public void addHighScore(String username, int score, String gameType) {
-        HighScore newScore = new HighScore(username, score, gameType);
-        highScores.add(newScore);
-        sortHighScores();
-        saveHighScores();
+        // Whole seconds, as stored, so a score matches its reloaded copy
+        HighScore newScore = new HighScore(username, score, gameType,
+                LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS));
+        writeLock.lock();
+        try {
+            scores.retain(newScore);
+            pendingScores.add(newScore);
+        } finally {
+            writeLock.unlock();
+        }
+        persister.submit(SCORES_KEY, this::flushHighScores);
+        compactIfDropped(compactAfter);
     }
 
-    private void sortHighScores() {
-        highScores.sort(null);
+    /**
+     * Gets the count and sum of a user's scores that the retention policy
+     * dropped for one game.
+     * @param username the user's name
+     * @param gameType the type of game
+     * @return the rollup, with a count of 0 if nothing was dropped
+     */
+    public ScoreCompactor.Rollup getRollup(String username, String gameType) {
+        readLock.lock();
+        try {
+            return scores.compactor.getRollup(username, gameType);
+        } finally {
+            readLock.unlock();
+        }
     }
 
+    /**
+     * Returns a copy of all scores, highest first. Ties keep file order.
+     * The caller holds the read or write lock.
+     */
+    private List<HighScore> sortedHighScores() {
+        ScoreColumns columns = scores.columns;
+        return new ArrayList<>(columns.view(columns.rowsByScore(null)));
+    }
+
+    /**
+     * Gets the best scores for a game. Up to the leaderboard capacity this
+     * reads the skip list and never waits for a lock, even while a score is
+     * being added.
+     */
     public List<HighScore> getTopScores(String gameType, int limit) {
-        List<HighScore> filtered = new ArrayList<>();
-        for (HighScore score : highScores) {
-            if (score.getGameType().equalsIgnoreCase(gameType)) {
-                filtered.add(score);
-                if (filtered.size() >= limit) {
-                    break;
-                }
-            }
+        if (limit <= TOP_SCORES_PER_GAME) {
+            return scores.top.top(gameType, limit);
+        }
+        return getScorePage(gameType, 0, limit);
+    }
+
+    /**
+     * Gets the best scores for a game within a time window.
+     * @param gameType the type of game
+     * @param window the day, week or all time
+     * @param limit the maximum number of scores to return
+     * @return the top scores, highest first
+     */
+    public List<HighScore> getTopScores(String gameType, LeaderboardWindow window, int limit) {
+        return getScorePage(gameType, window, 0, limit);
+    }
+
+    /**
+     * Gets one page of a game's leaderboard for a time window. The daily and
+     * weekly boards hold at most the leaderboard size.
+     * @param gameType the type of game
+     * @param window the day, week or all time
+     * @param offset the 0-based rank of the first score
+     * @param limit the page size
+     * @return the scores in rank order
+     */
+    public List<HighScore> getScorePage(String gameType, LeaderboardWindow window, int offset, int limit) {
+        if (window == LeaderboardWindow.ALL_TIME) {
+            return getScorePage(gameType, offset, limit);
+        }
+        readLock.lock();
+        try {
+            List<HighScore> top = scores.windows.top(gameType, window, offset + limit);
+            return new ArrayList<>(top.subList(Math.min(offset, top.size()), top.size()));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets one page of a game's full leaderboard in O(log n + limit).
+     * @param gameType the type of game
+     * @param offset the 0-based rank of the first score
+     * @param limit the page size
+     * @return the scores in rank order
+     */
+    public List<HighScore> getScorePage(String gameType, int offset, int limit) {
+        readLock.lock();
+        try {
+            return scores.ranks.page(gameType, offset, limit);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets a user's rank in a game, from their best score.
+     * @param username the user's name
+     * @param gameType the type of game
+     * @return the 1-based rank, or 0 if the user has no score in that game
+     */
+    public int getRank(String username, String gameType) {
+        readLock.lock();
+        try {
+            return scores.ranks.rankOf(username, gameType);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the scores ranked just above and below a user's best score.
+     * @param username the user's name
+     * @param gameType the type of game
+     * @param radius how many scores to include on each side
+     * @return the neighbouring scores in rank order, including the user's
+     */
+    public List<HighScore> getScoresAround(String username, String gameType, int radius) {
+        readLock.lock();
+        try {
+            return scores.ranks.around(username, gameType, radius);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return how many scores a game's leaderboard for a time window holds
+     */
+    public int getScoreCount(String gameType, LeaderboardWindow window) {
+        if (window == LeaderboardWindow.ALL_TIME) {
+            return getScoreCount(gameType);
+        }
+        readLock.lock();
+        try {
+            return scores.windows.size(gameType, window);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return how many kept scores a game has
+     */
+    public int getScoreCount(String gameType) {
+        readLock.lock();
+        try {
+            return scores.ranks.size(gameType);
+        } finally {
+            readLock.unlock();
         }
-        return filtered;
     }
 
     public List<HighScore> getTop5Scores(String gameType) {
         return getTopScores(gameType, 5);
     }
 
+    /**
+     * Gets a live view of a game's leaderboard (the best scores, highest
+     * first) that can be iterated without copying or locking.
+     * @param gameType the type of game
+     * @return a read-only, weakly consistent view
+     */
+    public Collection<HighScore> getLeaderboard(String gameType) {
+        return scores.top.view(gameType);
+    }
+
     public List<HighScore> getAllHighScores() {
-        return new ArrayList<>(highScores);
+        readLock.lock();
+        try {
+            return sortedHighScores();
+        } finally {
+            readLock.unlock();
+        }
     }
 
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        awaitUsers();
+        readLock.lock();
+        try {
+            return new ArrayList<>(users);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     public int getUserCount() {
-        return users.size();
+        awaitUsers();
+        readLock.lock();
+        try {
+            return users.size();
+        } finally {
+            readLock.unlock();
+        }
     }
 
     public int getHighScoreCount() {
-        return highScores.size();
+        readLock.lock();
+        try {
+            return scores.columns.liveCount();
+        } finally {
+            readLock.unlock();
+        }
     }
 }
-
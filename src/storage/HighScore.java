@@ -2,6 +2,7 @@ package storage;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 public class HighScore implements Comparable<HighScore> {
     private String username;
@@ -16,7 +17,8 @@ public class HighScore implements Comparable<HighScore> {
         this.username = username;
         this.score = score;
         this.gameType = gameType;
-        this.timestamp = LocalDateTime.now();
+        // Whole seconds, as stored, so a score matches its reloaded copy
+        this.timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
     }
 
     public HighScore(String username, int score, String gameType, LocalDateTime timestamp) {
@@ -0,0 +1,186 @@
+package storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * HighScoreParser decodes high score records straight from UTF-8 bytes.
+ * It splits fields in place, parses the score and the fixed
+ * "yyyy-MM-dd HH:mm:ss" timestamp arithmetically, and reuses String
+ * instances for usernames and game types it has already seen, so loading a
+ * large score file does not create intermediate Strings per line.
+ *
+ * Anything outside the fast path's layout (odd timestamps, huge numbers)
+ * falls back to HighScore.fromFileFormat, so results always match it.
+ * Instances are not thread-safe.
+ */
+public class HighScoreParser {
+
+    private static final int CACHE_SIZE = 1024;
+
+    private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+    private final String[] cachedStrings = new String[CACHE_SIZE];
+
+    /**
+     * Parses the record held in the buffer's remaining bytes.
+     * @param buffer a buffer positioned at the start of one line
+     * @return the score, or null if the line is not a valid record
+     */
+    public HighScore parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            return parse(buffer.array(), start, start + buffer.remaining());
+        }
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return parse(copy, 0, copy.length);
+    }
+
+    /**
+     * Parses one record from bytes[start, end), without the line terminator.
+     * @return the score, or null if the line is not a valid record
+     */
+    public HighScore parse(byte[] bytes, int start, int end) {
+        int c1 = indexOf(bytes, start, end, (byte) ',');
+        int c2 = c1 < 0 ? -1 : indexOf(bytes, c1 + 1, end, (byte) ',');
+        int c3 = c2 < 0 ? -1 : indexOf(bytes, c2 + 1, end, (byte) ',');
+        if (c3 < 0) {
+            return null;
+        }
+        int c4 = indexOf(bytes, c3 + 1, end, (byte) ',');
+        int tsEnd = c4 < 0 ? end : c4;
+
+        // Score: optional sign and up to 9 digits never overflow an int
+        int s = skipSpace(bytes, c1 + 1, c2);
+        int e = trimEnd(bytes, s, c2);
+        boolean negative = false;
+        if (s < e && (bytes[s] == '-' || bytes[s] == '+')) {
+            negative = bytes[s] == '-';
+            s++;
+        }
+        if (s == e || e - s > 9) {
+            return slowPath(bytes, start, end);
+        }
+        int score = 0;
+        for (int i = s; i < e; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            score = score * 10 + digit;
+        }
+        if (negative) {
+            score = -score;
+        }
+
+        LocalDateTime timestamp = parseTimestamp(bytes, skipSpace(bytes, c3 + 1, tsEnd), trimEnd(bytes, c3 + 1, tsEnd));
+        if (timestamp == null) {
+            return slowPath(bytes, start, end);
+        }
+
+        String username = intern(bytes, skipSpace(bytes, start, c1), trimEnd(bytes, start, c1));
+        String gameType = intern(bytes, skipSpace(bytes, c2 + 1, c3), trimEnd(bytes, c2 + 1, c3));
+        return new HighScore(username, score, gameType, timestamp);
+    }
+
+    /**
+     * Decodes exactly "yyyy-MM-dd HH:mm:ss" from bytes[s, e).
+     * @return the timestamp, or null if the layout or a field is out of range
+     */
+    private static LocalDateTime parseTimestamp(byte[] b, int s, int e) {
+        if (e - s != 19 || b[s + 4] != '-' || b[s + 7] != '-' || b[s + 10] != ' '
+                || b[s + 13] != ':' || b[s + 16] != ':') {
+            return null;
+        }
+        int year = digits(b, s, 4);
+        int month = digits(b, s + 5, 2);
+        int day = digits(b, s + 8, 2);
+        int hour = digits(b, s + 11, 2);
+        int minute = digits(b, s + 14, 2);
+        int second = digits(b, s + 17, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static int digits(byte[] b, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = b[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Returns a cached String for bytes[s, e), decoding only on a cache miss.
+     */
+    private String intern(byte[] bytes, int s, int e) {
+        int hash = 1;
+        for (int i = s; i < e; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        byte[] cached = cachedBytes[slot];
+        if (cached != null && cached.length == e - s) {
+            boolean same = true;
+            for (int i = 0; i < cached.length; i++) {
+                if (cached[i] != bytes[s + i]) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                return cachedStrings[slot];
+            }
+        }
+        byte[] key = new byte[e - s];
+        System.arraycopy(bytes, s, key, 0, key.length);
+        String value = new String(key, StandardCharsets.UTF_8);
+        cachedBytes[slot] = key;
+        cachedStrings[slot] = value;
+        return value;
+    }
+
+    private static HighScore slowPath(byte[] bytes, int start, int end) {
+        return HighScore.fromFileFormat(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte target) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Same whitespace rule as String.trim(): anything at or below a space
+    private static int skipSpace(byte[] bytes, int from, int to) {
+        while (from < to && (bytes[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(byte[] bytes, int from, int to) {
+        while (to > from && (bytes[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
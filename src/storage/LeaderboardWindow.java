@@ -0,0 +1,22 @@
+package storage;
+
+/**
+ * The time span a leaderboard covers. Days and weeks follow the local
+ * calendar of the score timestamps; weeks start on Monday.
+ */
+public enum LeaderboardWindow {
+    DAILY("Today"),
+    WEEKLY("This Week"),
+    ALL_TIME("All Time");
+
+    private final String displayName;
+
+    LeaderboardWindow(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,50 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MemoryScoreStore keeps high scores in memory only, for tests and
+ * benchmarks that should not touch the data files.
+ */
+public class MemoryScoreStore implements ScoreStore {
+
+    private final List<HighScore> scores = new ArrayList<>();
+
+    @Override
+    public synchronized List<HighScore> replay() {
+        return new ArrayList<>(scores);
+    }
+
+    @Override
+    public List<HighScore> readNew() {
+        // Nothing else writes to this store
+        return new ArrayList<>();
+    }
+
+    @Override
+    public synchronized void append(List<HighScore> newScores) {
+        scores.addAll(newScores);
+    }
+
+    @Override
+    public synchronized void compact(List<HighScore> keptScores) {
+        scores.clear();
+        scores.addAll(keptScores);
+    }
+
+    @Override
+    public boolean needsCompaction() {
+        return false;
+    }
+
+    @Override
+    public boolean hasForeignChanges() {
+        return false;
+    }
+
+    @Override
+    public String getFileName() {
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MemoryUserStore keeps accounts in memory only, for tests and benchmarks
+ * that should not touch the data files.
+ */
+public class MemoryUserStore implements UserStore {
+
+    private final List<User> users = new ArrayList<>();
+
+    @Override
+    public synchronized List<User> replay() {
+        return new ArrayList<>(users);
+    }
+
+    @Override
+    public synchronized void append(List<User> newUsers) {
+        users.addAll(newUsers);
+    }
+
+    @Override
+    public synchronized void writeAll(List<User> allUsers) {
+        users.clear();
+        users.addAll(allUsers);
+    }
+
+    @Override
+    public boolean isMigrated() {
+        // Only FileManager adds users here, and it always encrypts
+        return true;
+    }
+
+    @Override
+    public boolean hasForeignChanges() {
+        return false;
+    }
+
+    @Override
+    public String getFileName() {
+        return null;
+    }
+}
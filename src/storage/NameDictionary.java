@@ -0,0 +1,123 @@
+package storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NameDictionary maps usernames and game types to small int codes, so score
+ * records can store a fixed-width code instead of the text. Codes are line
+ * numbers in a sidecar text file that is only ever appended to.
+ */
+public class NameDictionary {
+
+    private final File file;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private long loadedBytes;
+
+    /**
+     * @param file the sidecar file holding one name per line, or null to keep
+     *             the dictionary in memory only
+     */
+    public NameDictionary(File file) {
+        this.file = file;
+        reload();
+    }
+
+    /**
+     * Gets the code for a name, adding the name if it is new.
+     * @param name the username or game type
+     * @return the name's code
+     */
+    public synchronized int codeOf(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (file == null) {
+            return add(name);
+        }
+        // Another instance may have added names, pick those up before
+        // assigning the next code so codes never collide
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
+            FileLock lock = channel.lock();
+            try {
+                reload();
+                code = codes.get(name);
+                if (code != null) {
+                    return code;
+                }
+                byte[] line = (name + "\n").getBytes(StandardCharsets.UTF_8);
+                channel.write(ByteBuffer.wrap(line));
+                loadedBytes += line.length;
+                return add(name);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error adding name to dictionary", e);
+        }
+    }
+
+    /**
+     * Gets the code for a name without adding it.
+     * @return the code, or -1 if the name is unknown
+     */
+    public synchronized int find(String name) {
+        Integer code = codes.get(name);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Gets the name for a code, re-reading the sidecar if another instance
+     * added names since we last looked.
+     * @param code the code to look up
+     * @return the name
+     */
+    public synchronized String nameOf(int code) {
+        if (code >= names.size()) {
+            reload();
+        }
+        return names.get(code);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private int add(String name) {
+        int code = names.size();
+        names.add(name);
+        codes.put(name, code);
+        return code;
+    }
+
+    /**
+     * Reads any names appended to the sidecar since the last read.
+     */
+    private void reload() {
+        if (file == null || !file.exists() || file.length() == loadedBytes) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            in.skipNBytes(loadedBytes);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                add(line);
+                loadedBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading name dictionary: " + e.getMessage());
+        }
+    }
+}
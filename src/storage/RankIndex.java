@@ -0,0 +1,347 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * RankIndex is an order-statistic index over every kept score, one per
+ * game type. Each game is a treap (a randomly balanced binary search tree)
+ * whose nodes also count their subtree, so a score's rank and the score at
+ * any rank are found in O(log n), and a page of k scores costs
+ * O(log n + k). Order is the leaderboard order: score highest first, then
+ * oldest first, then row order.
+ *
+ * Nodes hold only a row number of a ScoreColumns table and compare by
+ * reading the columns, so the index adds no copy of the score data;
+ * HighScore objects are built only for the scores a page returns.
+ *
+ * A user's rank is the rank of their best score in that game. Only that
+ * best node is remembered per user; if it is removed, the next best is
+ * found by walking the tree in O(n). Retention drops a user's lowest kept
+ * score, so in practice that walk is rare. Instances are not thread-safe;
+ * FileManager guards them with its lock.
+ */
+public class RankIndex {
+
+    private final ScoreColumns columns;
+    private final Map<String, Game> byGame = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+
+    private static class Node {
+        int row;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(int row, int priority) {
+            this.row = row;
+            this.priority = priority;
+        }
+    }
+
+    private static class Game {
+        Node root;
+        // Each user's best score
+        final Map<String, Node> bestByUser = new HashMap<>();
+    }
+
+    /**
+     * @param columns the table whose rows are indexed
+     */
+    public RankIndex(ScoreColumns columns) {
+        this.columns = columns;
+    }
+
+    private int compare(Node a, Node b) {
+        int c = Integer.compare(columns.score(b.row), columns.score(a.row));
+        if (c == 0) {
+            c = Long.compare(columns.epochSecond(a.row), columns.epochSecond(b.row));
+        }
+        return c != 0 ? c : Integer.compare(a.row, b.row);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String gameKey(int row) {
+        return key(columns.getNames().nameOf(columns.gameCode(row)));
+    }
+
+    private String userKey(int row) {
+        return key(columns.getNames().nameOf(columns.userCode(row)));
+    }
+
+    /**
+     * Adds a row of the columns in O(log n).
+     * @param row the row holding the score
+     */
+    public void add(int row) {
+        Game game = byGame.computeIfAbsent(gameKey(row), k -> new Game());
+        Node node = new Node(row, random.nextInt());
+        game.root = insert(game.root, node);
+        game.bestByUser.merge(userKey(row), node, (best, added) -> compare(added, best) < 0 ? added : best);
+    }
+
+    /**
+     * Removes a row in O(log n), if it is indexed. Call this before the
+     * row's values change.
+     * @param row the row to remove
+     * @return true if the row was removed
+     */
+    public boolean remove(int row) {
+        Game game = byGame.get(gameKey(row));
+        if (game == null) {
+            return false;
+        }
+        // Rows are unique, so a probe with the same row compares equal to its node
+        int size = size(game.root);
+        game.root = delete(game.root, new Node(row, 0));
+        if (size(game.root) == size) {
+            return false;
+        }
+        String user = userKey(row);
+        if (game.bestByUser.get(user).row == row) {
+            Node next = firstOf(game.root, userCodes(user));
+            if (next == null) {
+                game.bestByUser.remove(user);
+            } else {
+                game.bestByUser.put(user, next);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the codes of every spelling of a user's name
+     */
+    private BitSet userCodes(String user) {
+        NameDictionary names = columns.getNames();
+        BitSet codes = new BitSet();
+        for (int code = 0; code < names.size(); code++) {
+            if (key(names.nameOf(code)).equals(user)) {
+                codes.set(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * @return the best ranked node under this subtree whose user is one of
+     *         the codes, or null if there is none
+     */
+    private Node firstOf(Node node, BitSet userCodes) {
+        if (node == null) {
+            return null;
+        }
+        Node found = firstOf(node.left, userCodes);
+        if (found != null) {
+            return found;
+        }
+        if (userCodes.get(columns.userCode(node.row))) {
+            return node;
+        }
+        return firstOf(node.right, userCodes);
+    }
+
+    /**
+     * Follows ScoreColumns.compact() so nodes point at their new row
+     * numbers. Compaction keeps row order, so no node moves in the tree.
+     * @param mapping the new number of each old row
+     */
+    public void remap(int[] mapping) {
+        for (Game game : byGame.values()) {
+            remap(game.root, mapping);
+        }
+    }
+
+    private static void remap(Node node, int[] mapping) {
+        while (node != null) {
+            node.row = mapping[node.row];
+            remap(node.left, mapping);
+            node = node.right;
+        }
+    }
+
+    public void clear() {
+        byGame.clear();
+    }
+
+    /**
+     * @return how many scores the game has
+     */
+    public int size(String gameType) {
+        Game game = byGame.get(key(gameType));
+        return game == null ? 0 : size(game.root);
+    }
+
+    /**
+     * Gets a user's rank in a game, from their best score.
+     * @param username the user's name (case-insensitive)
+     * @param gameType the type of game
+     * @return the 1-based rank, or 0 if the user has no score in that game
+     */
+    public int rankOf(String username, String gameType) {
+        Game game = byGame.get(key(gameType));
+        Node best = game == null ? null : game.bestByUser.get(key(username));
+        if (best == null) {
+            return 0;
+        }
+        return countBefore(game.root, best) + 1;
+    }
+
+    /**
+     * Gets a slice of a game's leaderboard.
+     * @param gameType the type of game
+     * @param offset the 0-based rank of the first score to return
+     * @param limit the maximum number of scores to return
+     * @return the scores in rank order
+     */
+    public List<HighScore> page(String gameType, int offset, int limit) {
+        List<HighScore> result = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        Game game = byGame.get(key(gameType));
+        if (game != null && limit > 0) {
+            collect(game.root, Math.max(0, offset), (long) Math.max(0, offset) + limit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the scores ranked just above and below a user's best score.
+     * @param username the user's name (case-insensitive)
+     * @param gameType the type of game
+     * @param radius how many scores to include on each side
+     * @return up to 2 * radius + 1 scores in rank order, or an empty list if
+     *         the user has no score in that game
+     */
+    public List<HighScore> around(String username, String gameType, int radius) {
+        int rank = rankOf(username, gameType);
+        if (rank == 0) {
+            return new ArrayList<>();
+        }
+        int from = Math.max(0, rank - 1 - radius);
+        return page(gameType, from, rank + radius - from);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node, root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        update(root);
+        return root;
+    }
+
+    private Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        int c = compare(node, root);
+        if (c < 0) {
+            root.left = delete(root.left, node);
+        } else if (c > 0) {
+            root.right = delete(root.right, node);
+        } else {
+            return merge(root.left, root.right);
+        }
+        update(root);
+        return root;
+    }
+
+    // Joins two treaps where every node in left ranks before every node in right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int countBefore(Node root, Node node) {
+        int count = 0;
+        while (root != null) {
+            int c = compare(node, root);
+            if (c <= 0) {
+                if (c == 0) {
+                    return count + size(root.left);
+                }
+                root = root.left;
+            } else {
+                count += size(root.left) + 1;
+                root = root.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the scores ranked [from, to) under this subtree, visiting only
+     * subtrees that overlap the range.
+     */
+    private void collect(Node node, long from, long to, List<HighScore> out) {
+        if (node == null || from >= to) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (from < leftSize) {
+            collect(node.left, from, Math.min(to, leftSize), out);
+        }
+        if (from <= leftSize && leftSize < to) {
+            out.add(columns.get(node.row));
+        }
+        if (to > leftSize + 1) {
+            collect(node.right, Math.max(0, from - leftSize - 1), to - leftSize - 1, out);
+        }
+    }
+}
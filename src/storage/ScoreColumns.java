@@ -0,0 +1,182 @@
+package storage;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * ScoreColumns is a column-oriented in-memory score table. Each score is a
+ * row spread over primitive arrays (score, timestamp in UTC epoch seconds,
+ * username code, game code), with usernames and game types stored once in a
+ * NameDictionary. HighScore objects are only built when a row is read.
+ * Removed rows are only marked until compact() squeezes them out.
+ */
+public class ScoreColumns {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final NameDictionary names = new NameDictionary(null);
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int[] users = new int[INITIAL_CAPACITY];
+    private int[] games = new int[INITIAL_CAPACITY];
+    private int size;
+    private final BitSet removed = new BitSet();
+
+    /**
+     * Appends a score as a new row.
+     * @param score the score to store
+     * @return the new row number
+     */
+    public int add(HighScore score) {
+        return add(score.getUsername(), score.getScore(), score.getGameType(),
+                score.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public int add(String username, int score, String gameType, long epochSecond) {
+        if (size == scores.length) {
+            int capacity = size * 2;
+            scores = Arrays.copyOf(scores, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            users = Arrays.copyOf(users, capacity);
+            games = Arrays.copyOf(games, capacity);
+        }
+        scores[size] = score;
+        timestamps[size] = epochSecond;
+        users[size] = names.codeOf(username);
+        games[size] = names.codeOf(gameType);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of rows that have not been removed
+     */
+    public int liveCount() {
+        return size - removed.cardinality();
+    }
+
+    public void clear() {
+        size = 0;
+        removed.clear();
+    }
+
+    /**
+     * Marks a row as removed. It keeps its number until the next compact().
+     * @param row the row number
+     */
+    public void remove(int row) {
+        removed.set(row);
+    }
+
+    public boolean isRemoved(int row) {
+        return removed.get(row);
+    }
+
+    /**
+     * Drops removed rows and renumbers the rest, keeping their order.
+     * @return the new number of each old row, or -1 for a removed row
+     */
+    public int[] compact() {
+        int[] mapping = new int[size];
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if (removed.get(row)) {
+                mapping[row] = -1;
+                continue;
+            }
+            scores[live] = scores[row];
+            timestamps[live] = timestamps[row];
+            users[live] = users[row];
+            games[live] = games[row];
+            mapping[row] = live++;
+        }
+        size = live;
+        removed.clear();
+        return mapping;
+    }
+
+    public int score(int row) {
+        return scores[row];
+    }
+
+    public long epochSecond(int row) {
+        return timestamps[row];
+    }
+
+    public int userCode(int row) {
+        return users[row];
+    }
+
+    public int gameCode(int row) {
+        return games[row];
+    }
+
+    public NameDictionary getNames() {
+        return names;
+    }
+
+    /**
+     * Builds a HighScore view of one row.
+     * @param row the row number
+     * @return a new HighScore holding that row's values
+     */
+    public HighScore get(int row) {
+        return new HighScore(names.nameOf(users[row]), scores[row], names.nameOf(games[row]),
+                LocalDateTime.ofEpochSecond(timestamps[row], 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Gets rows sorted by score, highest first, optionally for one game.
+     * Ties keep row order, like a stable sort. Removed rows are skipped.
+     * @param gameType the game to keep (case-insensitive), or null for all rows
+     * @return the row numbers in rank order
+     */
+    public int[] rowsByScore(String gameType) {
+        boolean[] gameMatches = new boolean[names.size()];
+        for (int code = 0; code < gameMatches.length; code++) {
+            gameMatches[code] = gameType == null || names.nameOf(code).equalsIgnoreCase(gameType);
+        }
+
+        // Pack (inverted score, row) into one long so a primitive sort ranks them
+        long[] keys = new long[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (gameMatches[games[row]] && !removed.get(row)) {
+                keys[count++] = ((long) ~scores[row] << 32) | row;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Wraps rows as a read-only list that builds each HighScore on access.
+     * @param rows the row numbers to expose
+     * @return a lazy list view
+     */
+    public List<HighScore> view(int[] rows) {
+        return new AbstractList<HighScore>() {
+            @Override
+            public HighScore get(int index) {
+                return ScoreColumns.this.get(rows[index]);
+            }
+
+            @Override
+            public int size() {
+                return rows.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package storage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoreCompactor applies the score retention policy: for each user and game
+ * only the best N scores are kept, and every score beyond that is folded into
+ * a per-user, per-game rollup (count and sum) kept in a ".rollup" sidecar.
+ *
+ * The policy is applied incrementally as each score is added, in O(N), so
+ * dropped rows are only marked in the ScoreColumns. Once enough rows were
+ * dropped, FileManager rewrites the score file in the background with just
+ * the kept rows, which keeps the file bounded by users times games times N.
+ */
+public class ScoreCompactor {
+
+    private final ScoreColumns columns;
+    private final int keepPerUser;
+    private final File rollupFile;
+    private final Map<Long, Group> groups = new HashMap<>();
+    private int droppedSinceCompaction;
+
+    /**
+     * Count and sum of the scores dropped for one user in one game.
+     */
+    public static class Rollup {
+        private final long count;
+        private final long sum;
+
+        public Rollup(long count, long sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+    }
+
+    private static class Group {
+        final int[] rows;
+        int size;
+        long droppedCount;
+        long droppedSum;
+
+        Group(int capacity) {
+            rows = new int[capacity];
+        }
+    }
+
+    /**
+     * @param columns the score table the policy is applied to
+     * @param keepPerUser how many scores to keep per user per game, or 0 to keep all
+     * @param rollupFile the sidecar holding the rolled-up dropped scores, or
+     *                   null to keep rollups in memory only
+     */
+    public ScoreCompactor(ScoreColumns columns, int keepPerUser, File rollupFile) {
+        this.columns = columns;
+        this.keepPerUser = keepPerUser;
+        this.rollupFile = rollupFile;
+    }
+
+    /**
+     * Applies the retention policy to a newly added row. The new row or the
+     * worst kept row of its user and game may fall out of the best N; the
+     * caller then passes it to drop(), at once or once nothing else needs
+     * it. Ties keep the older score.
+     * @param row the row just added to the columns
+     * @return the row no longer kept, or -1 if every row is still kept
+     */
+    public int offer(int row) {
+        if (keepPerUser <= 0) {
+            return -1;
+        }
+        Group group = groups.computeIfAbsent(key(columns.userCode(row), columns.gameCode(row)),
+                k -> new Group(keepPerUser));
+        if (group.size < keepPerUser) {
+            group.rows[group.size++] = row;
+            return -1;
+        }
+        int worst = 0;
+        for (int i = 1; i < group.size; i++) {
+            if (isWorse(group.rows[i], group.rows[worst])) {
+                worst = i;
+            }
+        }
+        int dropped = row;
+        if (isWorse(group.rows[worst], row)) {
+            dropped = group.rows[worst];
+            group.rows[worst] = row;
+        }
+        return dropped;
+    }
+
+    /**
+     * Removes a row that offer() no longer keeps from the columns and adds
+     * it to its rollup.
+     * @param row the row returned by offer()
+     */
+    public void drop(int row) {
+        Group group = groups.get(key(columns.userCode(row), columns.gameCode(row)));
+        group.droppedCount++;
+        group.droppedSum += columns.score(row);
+        columns.remove(row);
+        droppedSinceCompaction++;
+    }
+
+    // Lower score is worse; on a tie the newer (higher) row is worse
+    private boolean isWorse(int a, int b) {
+        int byScore = Integer.compare(columns.score(a), columns.score(b));
+        return byScore != 0 ? byScore < 0 : a > b;
+    }
+
+    /**
+     * Follows ScoreColumns.compact() so kept rows point at their new numbers.
+     * @param mapping the new number of each old row
+     */
+    public void remap(int[] mapping) {
+        for (Group group : groups.values()) {
+            for (int i = 0; i < group.size; i++) {
+                group.rows[i] = mapping[group.rows[i]];
+            }
+        }
+        droppedSinceCompaction = 0;
+    }
+
+    /**
+     * @return how many rows were dropped since the columns were last compacted
+     */
+    public int getDroppedSinceCompaction() {
+        return droppedSinceCompaction;
+    }
+
+    public int getKeepPerUser() {
+        return keepPerUser;
+    }
+
+    /**
+     * Gets the rolled-up scores dropped for one user in one game.
+     * @param username the user's name, as stored in the scores
+     * @param gameType the type of game
+     * @return the rollup, with a count of 0 if nothing was dropped
+     */
+    public Rollup getRollup(String username, String gameType) {
+        NameDictionary names = columns.getNames();
+        int user = names.find(username);
+        int game = names.find(gameType);
+        Group group = user < 0 || game < 0 ? null : groups.get(key(user, game));
+        return group == null ? new Rollup(0, 0) : new Rollup(group.droppedCount, group.droppedSum);
+    }
+
+    /**
+     * Forgets all kept rows and rollups, then reads the rollup sidecar.
+     * Call this before replaying the score file into cleared columns.
+     */
+    public void reset() {
+        groups.clear();
+        droppedSinceCompaction = 0;
+        if (rollupFile == null || !rollupFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(rollupFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length != 4) {
+                    continue;
+                }
+                NameDictionary names = columns.getNames();
+                Group group = groups.computeIfAbsent(
+                        key(names.codeOf(parts[0]), names.codeOf(parts[1])),
+                        k -> new Group(keepPerUser));
+                group.droppedCount += Long.parseLong(parts[2].trim());
+                group.droppedSum += Long.parseLong(parts[3].trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading score rollups: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Captures the rollups as sidecar lines, to be written with writeRollups.
+     * @return one "username,gameType,count,sum" line per rolled-up group
+     */
+    public List<String> rollupLines() {
+        List<String> lines = new ArrayList<>();
+        NameDictionary names = columns.getNames();
+        for (Map.Entry<Long, Group> entry : groups.entrySet()) {
+            Group group = entry.getValue();
+            if (group.droppedCount > 0) {
+                long key = entry.getKey();
+                lines.add(names.nameOf((int) (key >>> 32)) + "," + names.nameOf((int) key)
+                        + "," + group.droppedCount + "," + group.droppedSum);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces the rollup sidecar. Safe to call without holding any lock.
+     * @param lines lines from rollupLines()
+     */
+    public void writeRollups(List<String> lines) {
+        if (rollupFile == null || (lines.isEmpty() && !rollupFile.exists())) {
+            return;
+        }
+        File temp = new File(rollupFile.getPath() + ".tmp");
+        try {
+            Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), rollupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error saving score rollups: " + e.getMessage());
+        }
+    }
+
+    private static long key(int userCode, int gameCode) {
+        return ((long) userCode << 32) | (gameCode & 0xFFFFFFFFL);
+    }
+}
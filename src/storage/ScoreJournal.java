@@ -0,0 +1,416 @@
+package storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ScoreJournal treats the high score file as an append-only log.
+ * Each new score is written as one appended record, loading replays every
+ * record in the file, and compaction rewrites the file in one pass.
+ *
+ * The journal remembers how far it has read and which file it read from,
+ * so a reload only parses bytes appended since then. Records this journal
+ * appended itself are skipped on the next read since the caller already
+ * has them in memory.
+ *
+ * Several instances may share the file. Appends and compactions hold a lock
+ * on a ".lock" sidecar, and a compaction keeps the records other instances
+ * appended since our last read instead of overwriting them.
+ */
+public class ScoreJournal implements ScoreStore {
+
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final File file;
+    private final File lockFile;
+    private final HighScoreParser parser = new HighScoreParser();
+    private int appendedSinceCompaction;
+
+    // Read position and the identity of the file it belongs to
+    private long readOffset = -1;
+    private Object fileKey;
+    // Byte ranges [start, end) we appended past readOffset, skipped on the next
+    // read, and the identity of the file they are offsets into
+    private final List<long[]> ownRanges = new ArrayList<>();
+    private Object ownKey;
+    // File size after our own last read or write, and whether someone else
+    // wrote in between
+    private long knownSize = -1;
+    private boolean foreignWrite;
+
+    public ScoreJournal(String fileName) {
+        this.file = new File(fileName);
+        this.lockFile = new File(fileName + ".lock");
+        try {
+            if (!file.exists()) {
+                file.createNewFile();
+            }
+        } catch (IOException e) {
+            System.err.println("Error initializing files: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized List<HighScore> replay() {
+        List<HighScore> scores = new ArrayList<>();
+        ownRanges.clear();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            readRecords(channel, 0, size, true, scores);
+            readOffset = size;
+            knownSize = size;
+            foreignWrite = false;
+            fileKey = fileKeyOf(file);
+            ownKey = fileKey;
+        } catch (IOException e) {
+            System.err.println("Error replaying score journal: " + e.getMessage());
+            readOffset = -1;
+        }
+        return scores;
+    }
+
+    /**
+     * Reads only the records appended since the last read. Returns null if
+     * the file was truncated or replaced since then.
+     */
+    @Override
+    public synchronized List<HighScore> readNew() {
+        if (readOffset < 0 || !Objects.equals(fileKey, fileKeyOf(file))) {
+            return null;
+        }
+        List<HighScore> scores = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < readOffset) {
+                return null;
+            }
+            readOffset = readRecords(channel, readOffset, size, false, scores);
+            knownSize = size;
+            foreignWrite = false;
+            ownRanges.removeIf(range -> range[1] <= readOffset);
+        } catch (IOException e) {
+            System.err.println("Error reading new high scores: " + e.getMessage());
+            return null;
+        }
+        return scores;
+    }
+
+    /**
+     * Appends a single score record to the end of the journal.
+     * @param score the score to append
+     */
+    public void append(HighScore score) {
+        append(List.of(score));
+    }
+
+    @Override
+    public synchronized void append(List<HighScore> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (HighScore score : scores) {
+            sb.append(score.toFileFormat()).append('\n');
+        }
+
+        try {
+            // Lock before opening, so a compaction cannot swap the file in between
+            FileLock lock = lock(lockFile);
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
+                long start = channel.size();
+                if (start != knownSize) {
+                    foreignWrite = true;
+                }
+                Object key = fileKeyOf(file);
+                if (!Objects.equals(ownKey, key)) {
+                    // Our earlier ranges were offsets into a file since replaced
+                    ownRanges.clear();
+                    ownKey = key;
+                }
+                if (start > 0 && !endsWithNewline(start)) {
+                    sb.insert(0, '\n');
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                long end = start + bytes.remaining();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+
+                if (start == readOffset && Objects.equals(fileKey, key)) {
+                    // Nobody else wrote since our last read, so we are caught up
+                    readOffset = end;
+                } else {
+                    ownRanges.add(new long[] {start, end});
+                }
+                knownSize = end;
+                appendedSinceCompaction += scores.size();
+            } finally {
+                lock.channel().close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending high scores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the journal so it holds the given scores, followed by any
+     * records other instances wrote that we have not read yet; those are
+     * left past our read offset, so the next readNew() returns them.
+     * The new contents are written to a temp file first and then moved over
+     * the journal, so a crash mid-write never leaves a half-written file.
+     * @param scores the scores to keep, in the order they should be written
+     */
+    @Override
+    public synchronized void compact(List<HighScore> scores) {
+        Path temp = null;
+        try {
+            FileLock lock = lock(lockFile);
+            try {
+                List<HighScore> foreign = readForeign(scores);
+                // A temp name of our own, so instances never write the same one
+                temp = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(),
+                        file.getName() + ".", ".tmp");
+                long keptBytes;
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writeLines(writer, scores);
+                    writer.flush();
+                    keptBytes = Files.size(temp);
+                    writeLines(writer, foreign);
+                }
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                temp = null;
+                appendedSinceCompaction = 0;
+                readOffset = keptBytes;
+                knownSize = file.length();
+                foreignWrite = !foreign.isEmpty();
+                fileKey = fileKeyOf(file);
+                ownRanges.clear();
+                ownKey = fileKey;
+            } finally {
+                lock.channel().close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error compacting score journal: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Reads the records in the file that other instances wrote and we have
+     * not read: everything past our read offset, or, if we never read this
+     * file or it was replaced since, every record not among the kept ones.
+     * Our own appends are skipped as long as the file they went to is still
+     * in place. The caller holds the lock.
+     */
+    private List<HighScore> readForeign(List<HighScore> kept) throws IOException {
+        List<HighScore> foreign = new ArrayList<>();
+        if (!file.exists()) {
+            return foreign;
+        }
+        Object key = fileKeyOf(file);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (readOffset >= 0 && Objects.equals(fileKey, key) && size >= readOffset) {
+                readRecords(channel, readOffset, size, true, foreign);
+                return foreign;
+            }
+            if (!Objects.equals(ownKey, key)) {
+                // Our own ranges were offsets into the old file
+                ownRanges.clear();
+            }
+            readRecords(channel, 0, size, true, foreign);
+        }
+        return withoutKept(foreign, kept);
+    }
+
+    /**
+     * @return the scores not among the kept ones, each kept record
+     *         cancelling one equal record
+     */
+    static List<HighScore> withoutKept(List<HighScore> scores, List<HighScore> kept) {
+        Map<String, Integer> keptCounts = new HashMap<>();
+        for (HighScore score : kept) {
+            keptCounts.merge(score.toFileFormat(), 1, Integer::sum);
+        }
+        List<HighScore> unseen = new ArrayList<>();
+        for (HighScore score : scores) {
+            String line = score.toFileFormat();
+            Integer count = keptCounts.get(line);
+            if (count == null) {
+                unseen.add(score);
+            } else if (count == 1) {
+                keptCounts.remove(line);
+            } else {
+                keptCounts.put(line, count - 1);
+            }
+        }
+        return unseen;
+    }
+
+    private static void writeLines(Writer writer, List<HighScore> scores) throws IOException {
+        for (HighScore score : scores) {
+            writer.write(score.toFileFormat());
+            writer.write('\n');
+        }
+    }
+
+    @Override
+    public synchronized boolean needsCompaction() {
+        return appendedSinceCompaction > 0;
+    }
+
+    @Override
+    public synchronized boolean hasForeignChanges() {
+        return foreignWrite || file.length() != knownSize || !Objects.equals(fileKey, fileKeyOf(file));
+    }
+
+    @Override
+    public String getFileName() {
+        return file.getName();
+    }
+
+    /**
+     * Parses complete lines between from and to, skipping our own appends.
+     * An unterminated last line is only parsed when includePartial is set.
+     * @return the offset just past the last line consumed
+     */
+    private long readRecords(FileChannel channel, long from, long to, boolean includePartial,
+                             List<HighScore> into) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+        long position = from;      // file offset of buffer[0]
+        long consumed = from;
+        channel.position(from);
+
+        while (position + buffer.position() < to) {
+            if (!buffer.hasRemaining()) {
+                // A single line longer than the buffer, grow it
+                ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+            int limit = (int) Math.min(buffer.remaining(), to - position - buffer.position());
+            ByteBuffer window = buffer.slice().limit(limit);
+            int read = channel.read(window);
+            if (read <= 0) {
+                break;
+            }
+            buffer.position(buffer.position() + read);
+
+            byte[] array = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (array[i] == '\n') {
+                    parseLine(array, lineStart, i, position + lineStart, into);
+                    lineStart = i + 1;
+                }
+            }
+            consumed = position + lineStart;
+            // Move the unfinished line to the front of the buffer
+            buffer.flip();
+            buffer.position(lineStart);
+            buffer.compact();
+            position += lineStart;
+        }
+
+        if (includePartial && buffer.position() > 0) {
+            parseLine(buffer.array(), 0, buffer.position(), position, into);
+            consumed = position + buffer.position();
+        }
+        return consumed;
+    }
+
+    private void parseLine(byte[] array, int start, int end, long fileOffset, List<HighScore> into) {
+        if (isOwnRecord(fileOffset)) {
+            return;
+        }
+        if (end > start && array[end - 1] == '\r') {
+            end--;
+        }
+        HighScore score = parser.parse(array, start, end);
+        if (score != null) {
+            into.add(score);
+        }
+    }
+
+    private boolean isOwnRecord(long fileOffset) {
+        for (long[] range : ownRanges) {
+            if (fileOffset >= range[0] && fileOffset < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean endsWithNewline(long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(size - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    /**
+     * Locks a sidecar file that every instance sharing a data file locks
+     * before appending to or replacing it. The data file itself cannot carry
+     * the lock, since compaction replaces it. Close the lock's channel to
+     * release it.
+     *
+     * File locks belong to the whole JVM, so an instance in this process
+     * holding the lock makes channel.lock() throw instead of block; in that
+     * case we poll until it is released.
+     * @param lockFile the sidecar, created if missing
+     * @return the held lock
+     */
+    static FileLock lock(File lockFile) throws IOException {
+        FileChannel channel = FileChannel.open(lockFile.toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            while (true) {
+                try {
+                    return channel.lock();
+                } catch (OverlappingFileLockException e) {
+                    Thread.sleep(1);
+                }
+            }
+        } catch (InterruptedException e) {
+            channel.close();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for " + lockFile);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies the file on disk, so a rewrite by compaction or another
+     * process is noticed even when the new file is larger than our offset.
+     */
+    static Object fileKeyOf(File file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            Object key = attrs.fileKey();
+            return key != null ? key : attrs.creationTime();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
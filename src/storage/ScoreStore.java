@@ -0,0 +1,49 @@
+package storage;
+
+import java.util.List;
+
+/**
+ * ScoreStore is an append-only, replayable log of high scores on disk.
+ * FileManager keeps the in-memory indexes; a ScoreStore only persists.
+ */
+public interface ScoreStore {
+
+    /**
+     * Reads every stored score.
+     * @return the scores in the order they were written
+     */
+    List<HighScore> replay();
+
+    /**
+     * Reads only the scores written by other processes since the last read.
+     * @return the new scores, or null if the store has to be replayed in full
+     */
+    List<HighScore> readNew();
+
+    /**
+     * Appends a batch of scores.
+     * @param scores the scores to append
+     */
+    void append(List<HighScore> scores);
+
+    /**
+     * Rewrites the store so it holds exactly the given scores.
+     * @param scores the scores to keep, in the order they should be written
+     */
+    void compact(List<HighScore> scores);
+
+    /**
+     * @return true if scores were appended since the last compaction
+     */
+    boolean needsCompaction();
+
+    /**
+     * @return true if another process changed the store since our last read or write
+     */
+    boolean hasForeignChanges();
+
+    /**
+     * @return the name of the main file, used to watch it for changes
+     */
+    String getFileName();
+}
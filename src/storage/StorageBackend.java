@@ -0,0 +1,57 @@
+package storage;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * StorageBackend picks where FileManager keeps its data, selected with
+ * -Dstorage.backend:
+ * "text" (the default) keeps accounts and scores in text files,
+ * "binary" keeps scores in a memory-mapped binary file for large datasets,
+ * and "memory" keeps everything in memory, for tests and benchmarks.
+ */
+public enum StorageBackend {
+    TEXT, BINARY, MEMORY;
+
+    private static final String ACCOUNTS_FILE = "user_accounts.txt";
+    private static final String HIGH_SCORES_FILE = "high_scores.txt";
+    private static final String HIGH_SCORES_BINARY_FILE = "high_scores.bin";
+
+    /**
+     * Reads -Dstorage.backend, falling back to the older -Dstorage.scoreFormat.
+     * @return the selected backend, or TEXT if the name is unknown
+     */
+    public static StorageBackend fromSystemProperties() {
+        String name = System.getProperty("storage.backend", System.getProperty("storage.scoreFormat", "text"));
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown storage backend '" + name + "', using text files");
+            return TEXT;
+        }
+    }
+
+    public UserStore openUserStore() {
+        // Accounts are small and already append-only, so both file backends share the text file
+        return this == MEMORY ? new MemoryUserStore() : new TextUserStore(ACCOUNTS_FILE);
+    }
+
+    /**
+     * Opens the score store. A new binary file is seeded from the text file.
+     */
+    public ScoreStore openScoreStore() {
+        switch (this) {
+            case MEMORY:
+                return new MemoryScoreStore();
+            case BINARY:
+                boolean seed = !new File(HIGH_SCORES_BINARY_FILE).exists();
+                BinaryScoreFile binary = new BinaryScoreFile(HIGH_SCORES_BINARY_FILE);
+                if (seed) {
+                    binary.importText(new File(HIGH_SCORES_FILE));
+                }
+                return binary;
+            default:
+                return new ScoreJournal(HIGH_SCORES_FILE);
+        }
+    }
+}
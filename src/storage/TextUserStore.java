@@ -0,0 +1,130 @@
+package storage;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * TextUserStore keeps accounts in a text file, one User.toFileFormat line
+ * per account. New accounts are appended; the file is only rewritten in
+ * full when an existing account changes.
+ *
+ * Files written by this version start with a FORMAT_HEADER line, meaning
+ * every password in the file is encrypted. Older files have no header and
+ * are upgraded by the next full rewrite. Older builds skip the header
+ * line, since it is not a valid account record.
+ */
+public class TextUserStore implements UserStore {
+
+    public static final String FORMAT_HEADER = "#accounts-v2";
+
+    private final File file;
+    private boolean migrated;
+
+    // File size and identity after our own last read or write, and whether
+    // someone else wrote in between
+    private long knownSize = -1;
+    private Object fileKey;
+    private boolean foreignWrite;
+
+    public TextUserStore(String fileName) {
+        this.file = new File(fileName);
+        try {
+            if (!file.exists()) {
+                file.createNewFile();
+            }
+        } catch (IOException e) {
+            System.err.println("Error initializing files: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized List<User> replay() {
+        List<User> users = new ArrayList<>();
+        // Remember the file first, so writes that race with the read show up as changes
+        remember();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            // An empty file has nothing to migrate, the header goes in with the first account
+            migrated = line == null || line.equals(FORMAT_HEADER);
+            if (FORMAT_HEADER.equals(line)) {
+                line = reader.readLine();
+            }
+            for (; line != null; line = reader.readLine()) {
+                User user = User.fromFileFormat(line);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading users: " + e.getMessage());
+        }
+        return users;
+    }
+
+    @Override
+    public synchronized void append(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        // Someone else appended since we last looked, keep that visible
+        boolean foreign = hasForeignChanges();
+        boolean empty = file.length() == 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true), 1 << 16)) {
+            if (empty) {
+                writer.write(FORMAT_HEADER);
+                writer.newLine();
+            }
+            for (User user : users) {
+                writer.write(user.toFileFormat());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending users: " + e.getMessage());
+        }
+        remember();
+        foreignWrite = foreign;
+    }
+
+    @Override
+    public synchronized void writeAll(List<User> users) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(FORMAT_HEADER);
+            writer.newLine();
+            for (User user : users) {
+                writer.write(user.toFileFormat());
+                writer.newLine();
+            }
+            migrated = true;
+        } catch (IOException e) {
+            System.err.println("Error saving users: " + e.getMessage());
+        }
+        remember();
+    }
+
+    @Override
+    public synchronized boolean isMigrated() {
+        return migrated;
+    }
+
+    @Override
+    public synchronized boolean hasForeignChanges() {
+        return foreignWrite || file.length() != knownSize
+                || !Objects.equals(fileKey, ScoreJournal.fileKeyOf(file));
+    }
+
+    @Override
+    public String getFileName() {
+        return file.getName();
+    }
+
+    /**
+     * Records the file as we last saw it, after our own read or write.
+     */
+    private void remember() {
+        knownSize = file.length();
+        fileKey = ScoreJournal.fileKeyOf(file);
+        foreignWrite = false;
+    }
+}
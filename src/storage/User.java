@@ -1,6 +1,6 @@
 package storage;
 
-import utils.EncryptionUtils;
+import utils.PasswordHasher;
 
 public class User {
     private String username;
@@ -40,7 +40,7 @@ public class User {
         if (!this.username.equals(username)) {
             return false;
         }
-        return EncryptionUtils.validatePassword(plainPassword, this.password);
+        return PasswordHasher.verify(plainPassword, this.password);
     }
 
     public String toFileFormat() {
@@ -0,0 +1,45 @@
+package storage;
+
+import java.util.List;
+
+/**
+ * UserStore persists user accounts. FileManager keeps the in-memory list
+ * and name index; a UserStore only reads and writes.
+ */
+public interface UserStore {
+
+    /**
+     * Reads every stored account.
+     * @return the users in the order they were written
+     */
+    List<User> replay();
+
+    /**
+     * Appends a batch of new accounts.
+     * @param users the users to append
+     */
+    void append(List<User> users);
+
+    /**
+     * Rewrites the store so it holds exactly the given accounts.
+     * @param users the users to keep, in the order they should be written
+     */
+    void writeAll(List<User> users);
+
+    /**
+     * Tells whether the last replay found every password already encrypted,
+     * so loading can skip checking each one for plain text.
+     * @return true if the store is in the current, fully encrypted format
+     */
+    boolean isMigrated();
+
+    /**
+     * @return true if another process changed the store since our last read or write
+     */
+    boolean hasForeignChanges();
+
+    /**
+     * @return the name of the file to watch for changes, or null if there is none
+     */
+    String getFileName();
+}
@@ -0,0 +1,179 @@
+package storage;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * WindowedLeaderboard keeps daily and weekly leaderboards per game type,
+ * built incrementally as scores arrive. Each window is split into time
+ * buckets (one per day, one per week) keyed by their start day, and every
+ * bucket holds a bounded, sorted top-K. Reading a window is an O(K) walk of
+ * the current bucket, and a bucket that falls out of its window is dropped
+ * whole instead of filtering individual scores.
+ *
+ * Instances are not thread-safe; FileManager guards them with its lock.
+ */
+public class WindowedLeaderboard {
+
+    private final int capacity;
+    private final Clock clock;
+    private final Map<String, TreeMap<Long, TreeSet<Entry>>> daily = new HashMap<>();
+    private final Map<String, TreeMap<Long, TreeSet<Entry>>> weekly = new HashMap<>();
+    private long nextSequence;
+
+    private static class Entry implements Comparable<Entry> {
+        final HighScore score;
+        final long sequence;
+
+        Entry(HighScore score, long sequence) {
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int c = Integer.compare(other.score.getScore(), score.getScore());
+            if (c == 0) {
+                c = score.getTimestamp().compareTo(other.score.getTimestamp());
+            }
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * @param capacity how many scores each bucket keeps
+     * @param clock the clock that decides which day and week are current
+     */
+    public WindowedLeaderboard(int capacity, Clock clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    public WindowedLeaderboard(int capacity) {
+        this(capacity, Clock.systemDefaultZone());
+    }
+
+    private static String key(String gameType) {
+        return gameType == null ? "" : gameType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long dayOf(LocalDate date) {
+        return date.toEpochDay();
+    }
+
+    private static long weekOf(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY).toEpochDay();
+    }
+
+    /**
+     * Offers a score to its day and week buckets. Scores from days or weeks
+     * that are already over are ignored, and expired buckets are dropped.
+     * @param score the score to add
+     */
+    public void add(HighScore score) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate date = score.getTimestamp().toLocalDate();
+        long sequence = nextSequence++;
+        String game = key(score.getGameType());
+        offer(daily.computeIfAbsent(game, k -> new TreeMap<>()), dayOf(date), dayOf(today),
+                new Entry(score, sequence));
+        offer(weekly.computeIfAbsent(game, k -> new TreeMap<>()), weekOf(date), weekOf(today),
+                new Entry(score, sequence));
+    }
+
+    private void offer(TreeMap<Long, TreeSet<Entry>> buckets, long bucket, long current, Entry entry) {
+        // Everything before the current bucket has expired
+        buckets.headMap(current).clear();
+        if (bucket < current) {
+            return;
+        }
+        TreeSet<Entry> top = buckets.computeIfAbsent(bucket, k -> new TreeSet<>());
+        if (top.size() >= capacity && top.last().score.getScore() >= entry.score.getScore()) {
+            return;
+        }
+        top.add(entry);
+        if (top.size() > capacity) {
+            top.pollLast();
+        }
+    }
+
+    /**
+     * @return the Monday the current week started on
+     */
+    public LocalDate currentWeekStart() {
+        return LocalDate.now(clock).with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * @param timestamp when a score was set
+     * @return true if the score belongs to the current week (or a later one),
+     *         so the weekly board may still show it
+     */
+    public boolean isInCurrentWeek(LocalDateTime timestamp) {
+        return weekOf(timestamp.toLocalDate()) >= weekOf(LocalDate.now(clock));
+    }
+
+    /**
+     * Gets the best scores of the current day or week, highest first. Only
+     * the current bucket is read, so this costs O(limit).
+     * @param gameType the type of game
+     * @param window DAILY or WEEKLY
+     * @param limit the maximum number of scores to return (at most the capacity)
+     * @return the top scores
+     */
+    public List<HighScore> top(String gameType, LeaderboardWindow window, int limit) {
+        List<HighScore> result = new ArrayList<>();
+        TreeSet<Entry> top = currentBucket(gameType, window);
+        if (top == null) {
+            return result;
+        }
+        for (Entry entry : top) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry.score);
+        }
+        return result;
+    }
+
+    /**
+     * @return how many scores the current day or week holds, at most the capacity
+     */
+    public int size(String gameType, LeaderboardWindow window) {
+        TreeSet<Entry> top = currentBucket(gameType, window);
+        return top == null ? 0 : top.size();
+    }
+
+    private TreeSet<Entry> currentBucket(String gameType, LeaderboardWindow window) {
+        LocalDate today = LocalDate.now(clock);
+        Map<String, TreeMap<Long, TreeSet<Entry>>> buckets;
+        long current;
+        switch (window) {
+            case DAILY:
+                buckets = daily;
+                current = dayOf(today);
+                break;
+            case WEEKLY:
+                buckets = weekly;
+                current = weekOf(today);
+                break;
+            default:
+                throw new IllegalArgumentException("Not a bucketed window: " + window);
+        }
+        TreeMap<Long, TreeSet<Entry>> game = buckets.get(key(gameType));
+        return game == null ? null : game.get(current);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
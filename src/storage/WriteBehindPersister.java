@@ -0,0 +1,146 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WriteBehindPersister runs file writes on a dedicated background thread.
+ * Callers submit a write under a key and return immediately; submitting the
+ * same key again before the next flush replaces the earlier write, so bursts
+ * of changes coalesce into a single write per key.
+ */
+public class WriteBehindPersister {
+
+    private final long flushIntervalMillis;
+    private final Map<String, Runnable> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Metrics: queue depth is guarded by this, flush timings are only
+    // written while holding flushLock so readers never block on a flush
+    private int queueDepth;
+    private volatile long flushCount;
+    private volatile long totalFlushNanos;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    /**
+     * @param flushIntervalMillis how long to wait between background flushes
+     */
+    public WriteBehindPersister(long flushIntervalMillis) {
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.thread = new Thread(this::runLoop, "storage-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Schedules a write. Replaces any write still pending under the same key.
+     * @param key identifies what the write persists
+     * @param write the action that performs the write
+     */
+    public void submit(String key, Runnable write) {
+        synchronized (this) {
+            if (running) {
+                pending.put(key, write);
+                queueDepth++;
+                return;
+            }
+        }
+        // Already shut down, nothing will flush later so write now
+        write.run();
+    }
+
+    /**
+     * Runs every pending write on the calling thread and waits for any
+     * background flush already in progress.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<Runnable> writes;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                writes = new ArrayList<>(pending.values());
+                pending.clear();
+                queueDepth = 0;
+            }
+
+            long start = System.nanoTime();
+            for (Runnable write : writes) {
+                try {
+                    write.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error during background save: " + e.getMessage());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            flushCount++;
+            totalFlushNanos += elapsed;
+            lastFlushNanos = elapsed;
+            maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        }
+    }
+
+    /**
+     * Stops the background thread and flushes whatever is still pending.
+     * Safe to call more than once.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            thread.join(flushIntervalMillis + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void runLoop() {
+        while (running) {
+            synchronized (this) {
+                try {
+                    wait(flushIntervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     * @return the number of writes submitted since the last flush, counting coalesced ones
+     */
+    public synchronized int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount;
+        return count == 0 ? 0 : totalFlushNanos / 1_000_000.0 / count;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+}
@@ -1,15 +1,35 @@
 package utils;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
 
 /**
  * EncryptionUtils provides simple encryption/decryption for passwords and save states.
  * Uses Base64 encoding with a simple XOR cipher for basic security.
+ *
+ * Text is converted with UTF-8. Records written by older versions used the
+ * platform charset instead, so decrypt() and validatePassword() fall back
+ * to it for text that does not match as UTF-8. Besides the String methods
+ * there are stream and ByteBuffer variants for large save payloads; they
+ * work in fixed-size chunks and produce the same output as the String
+ * methods.
  */
 public class EncryptionUtils {
-    
+
     // Simple key for XOR encryption
     private static final String SECRET_KEY = "CS151GameProject";
+    private static final byte[] KEY_BYTES = SECRET_KEY.getBytes(StandardCharsets.UTF_8);
+
+    // A multiple of 3 (whole Base64 groups) and of the key length
+    private static final int CHUNK_SIZE = 3 * 16 * 256;
 
     /**
      * Encrypts a string using XOR cipher and Base64 encoding.
@@ -17,19 +37,17 @@ public class EncryptionUtils {
      * @return encrypted string
      */
     public static String encrypt(String plainText) {
+        return encrypt(plainText, StandardCharsets.UTF_8);
+    }
+
+    private static String encrypt(String plainText, Charset charset) {
         if (plainText == null || plainText.isEmpty()) {
             return "";
         }
-        
-        byte[] textBytes = plainText.getBytes();
-        byte[] keyBytes = SECRET_KEY.getBytes();
-        byte[] encrypted = new byte[textBytes.length];
-        
-        for (int i = 0; i < textBytes.length; i++) {
-            encrypted[i] = (byte) (textBytes[i] ^ keyBytes[i % keyBytes.length]);
-        }
-        
-        return Base64.getEncoder().encodeToString(encrypted);
+
+        byte[] textBytes = plainText.getBytes(charset);
+        xor(textBytes, 0, textBytes.length, 0);
+        return Base64.getEncoder().encodeToString(textBytes);
     }
 
     /**
@@ -41,23 +59,151 @@ public class EncryptionUtils {
         if (encryptedText == null || encryptedText.isEmpty()) {
             return "";
         }
-        
+
         try {
-            byte[] encrypted = Base64.getDecoder().decode(encryptedText);
-            byte[] keyBytes = SECRET_KEY.getBytes();
-            byte[] decrypted = new byte[encrypted.length];
-            
-            for (int i = 0; i < encrypted.length; i++) {
-                decrypted[i] = (byte) (encrypted[i] ^ keyBytes[i % keyBytes.length]);
-            }
-            
-            return new String(decrypted);
+            byte[] bytes = Base64.getDecoder().decode(encryptedText);
+            xor(bytes, 0, bytes.length, 0);
+            return decodeText(bytes);
         } catch (Exception e) {
             // If decryption fails, return empty string
             return "";
         }
     }
 
+    /**
+     * Decodes decrypted bytes as UTF-8, or with the platform charset if they
+     * are not valid UTF-8, as in records from before the switch to UTF-8.
+     */
+    private static String decodeText(byte[] bytes) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+        } catch (CharacterCodingException e) {
+            return new String(bytes, Charset.defaultCharset());
+        }
+    }
+
+    /**
+     * Encrypts everything read from a stream and writes the Base64 text.
+     * Neither stream is closed.
+     * @param in the plain bytes (UTF-8 text for a save state)
+     * @param out where the encrypted text is written, as ASCII
+     * @return the number of plain bytes read
+     * @throws IOException if reading or writing fails
+     */
+    public static long encrypt(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long total = 0;
+        try (OutputStream encoder = Base64.getEncoder().wrap(keepOpen(out))) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                xor(buffer, 0, read, total);
+                encoder.write(buffer, 0, read);
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Decrypts Base64 text read from a stream and writes the plain bytes.
+     * Neither stream is closed.
+     * @param in the encrypted text
+     * @param out where the plain bytes are written
+     * @return the number of plain bytes written
+     * @throws IOException if reading or writing fails, or the input is not Base64
+     */
+    public static long decrypt(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long total = 0;
+        InputStream decoder = Base64.getDecoder().wrap(in);
+        try {
+            int read;
+            while ((read = decoder.read(buffer)) > 0) {
+                xor(buffer, 0, read, total);
+                out.write(buffer, 0, read);
+                total += read;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid encrypted data: " + e.getMessage(), e);
+        }
+        return total;
+    }
+
+    /**
+     * Encrypts the remaining bytes of a buffer without changing its position.
+     * @param plain the plain bytes
+     * @return a new buffer holding the Base64 text as ASCII, ready to read
+     */
+    public static ByteBuffer encryptBuffer(ByteBuffer plain) {
+        ByteBuffer src = plain.duplicate();
+        int length = src.remaining();
+        ByteBuffer result = ByteBuffer.allocate(4 * ((length + 2) / 3));
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, length)];
+        byte[] encoded = new byte[4 * ((chunk.length + 2) / 3)];
+        Base64.Encoder encoder = Base64.getEncoder();
+        long offset = 0;
+        while (src.hasRemaining()) {
+            int n = Math.min(chunk.length, src.remaining());
+            src.get(chunk, 0, n);
+            xor(chunk, 0, n, offset);
+            offset += n;
+            // Only the last chunk can be short, so padding only ends the output
+            byte[] part = n == chunk.length ? chunk : Arrays.copyOf(chunk, n);
+            int written = encoder.encode(part, encoded);
+            result.put(encoded, 0, written);
+        }
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Decrypts the remaining Base64 text of a buffer without changing its
+     * position.
+     * @param encrypted the encrypted text as ASCII
+     * @return a new buffer holding the plain bytes, ready to read
+     * @throws IllegalArgumentException if the input is not Base64
+     */
+    public static ByteBuffer decryptBuffer(ByteBuffer encrypted) {
+        ByteBuffer plain = Base64.getDecoder().decode(encrypted.duplicate());
+        if (plain.hasArray()) {
+            xor(plain.array(), plain.arrayOffset() + plain.position(), plain.remaining(), 0);
+        } else {
+            for (int i = plain.position(); i < plain.limit(); i++) {
+                plain.put(i, (byte) (plain.get(i) ^ KEY_BYTES[(i - plain.position()) % KEY_BYTES.length]));
+            }
+        }
+        return plain;
+    }
+
+    /**
+     * XORs bytes in place with the key.
+     * @param keyOffset the position of bytes[from] in the whole message
+     */
+    private static void xor(byte[] bytes, int from, int length, long keyOffset) {
+        int k = (int) (keyOffset % KEY_BYTES.length);
+        for (int i = from; i < from + length; i++) {
+            bytes[i] ^= KEY_BYTES[k];
+            if (++k == KEY_BYTES.length) {
+                k = 0;
+            }
+        }
+    }
+
+    // Lets the Base64 encoder write its final padding on close without closing out
+    private static OutputStream keepOpen(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
     /**
      * Validates if a plain password matches an encrypted password.
      * @param plainPassword the plain text password to check
@@ -65,25 +211,35 @@ public class EncryptionUtils {
      * @return true if passwords match
      */
     public static boolean validatePassword(String plainPassword, String encryptedPassword) {
-        String encrypted = encrypt(plainPassword);
-        return encrypted.equals(encryptedPassword);
+        if (encrypt(plainPassword).equals(encryptedPassword)) {
+            return true;
+        }
+        // Older records were encrypted from the platform charset's bytes
+        Charset platform = Charset.defaultCharset();
+        return !platform.equals(StandardCharsets.UTF_8)
+                && encrypt(plainPassword, platform).equals(encryptedPassword);
     }
 
     /**
-     * Checks if a string appears to be encrypted (Base64 format).
+     * Checks if a string appears to be encrypted (Base64 format). Only the
+     * characters and padding are checked; nothing is decoded.
      * @param text the text to check
      * @return true if text appears to be encrypted
      */
     public static boolean isEncrypted(String text) {
-        if (text == null || text.isEmpty()) {
+        if (text == null || text.isEmpty() || text.length() % 4 != 0) {
             return false;
         }
-        try {
-            Base64.getDecoder().decode(text);
-            return true;
-        } catch (Exception e) {
-            return false;
+        int length = text.length();
+        int padding = text.charAt(length - 1) == '=' ? (text.charAt(length - 2) == '=' ? 2 : 1) : 0;
+        for (int i = 0; i < length - padding; i++) {
+            char c = text.charAt(i);
+            boolean base64 = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '+' || c == '/';
+            if (!base64) {
+                return false;
+            }
         }
+        return true;
     }
 }
-
@@ -0,0 +1,148 @@
+package utils;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PasswordHasher stores account passwords as salted PBKDF2 hashes, using
+ * the JDK's PBKDF2WithHmacSHA256. A stored credential looks like
+ * "pbkdf2$iterations$salt$hash" (salt and hash in Base64), so each record
+ * carries its own cost and the cost can be raised without breaking old
+ * records.
+ *
+ * Records in the older reversible format from EncryptionUtils are still
+ * accepted by verify(); needsRehash() reports them (and records below the
+ * current cost) so the caller can replace them after a successful login.
+ */
+public class PasswordHasher {
+
+    public static final String PREFIX = "pbkdf2";
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Gets the cost used for new hashes, from the security.passwordIterations
+     * system property. Run benchmark.LoginBenchmark to pick a value that
+     * fits the login latency budget.
+     * @return the PBKDF2 iteration count
+     */
+    public static int currentIterations() {
+        return Math.max(MIN_ITERATIONS, Integer.getInteger("security.passwordIterations", DEFAULT_ITERATIONS));
+    }
+
+    /**
+     * Hashes a password at the current cost with a new random salt.
+     * @param password the plain text password
+     * @return the stored credential
+     */
+    public static String hash(String password) {
+        return hash(password, currentIterations());
+    }
+
+    /**
+     * Hashes a password at the given cost with a new random salt.
+     * @param password the plain text password
+     * @param iterations the PBKDF2 iteration count
+     * @return the stored credential
+     */
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_BITS);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Checks a password against a stored credential in either the PBKDF2
+     * format or the older reversible format.
+     * @param password the plain text password to check
+     * @param stored the stored credential
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null || stored.isEmpty()) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return EncryptionUtils.validatePassword(password, stored);
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            if (iterations < 1 || expected.length == 0) {
+                return false;
+            }
+            byte[] actual = derive(password, salt, iterations, expected.length * 8);
+            // Constant-time comparison, so timing does not leak how much matched
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the credential is in the PBKDF2 format
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * Gets the cost a credential was hashed with.
+     * @param stored the stored credential
+     * @return the iteration count, or 0 for a legacy or malformed record
+     */
+    public static int iterationsOf(String stored) {
+        if (!isHashed(stored)) {
+            return 0;
+        }
+        int start = PREFIX.length() + 1;
+        int end = stored.indexOf('$', start);
+        try {
+            return end < 0 ? 0 : Integer.parseInt(stored.substring(start, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Checks whether a credential should be replaced with a new hash after
+     * the next successful login: legacy records and records hashed below
+     * the current cost.
+     * @param stored the stored credential
+     * @return true if the record should be rehashed
+     */
+    public static boolean needsRehash(String stored) {
+        return iterationsOf(stored) < currentIterations();
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int bits) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // Every Java 8+ runtime ships this algorithm
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+}